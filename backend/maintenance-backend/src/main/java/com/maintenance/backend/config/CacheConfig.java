@@ -0,0 +1,72 @@
+package com.maintenance.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfig {
+    
+    public static final String USERS_REGION = "users";
+    public static final String USER_QUERIES_REGION = "user-queries";
+    
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    
+    @Value("${maintenance.cache.max-entries:10000}")
+    private long maxEntries;
+    
+    @Value("${maintenance.cache.ttl:10m}")
+    private Duration ttl;
+    
+    // Each node caches users on its own and only its own changes evict them, so another node's
+    // change to a user shows up here once the entry expires.
+    @Value("${maintenance.cache.users-ttl:${maintenance.cache.ttl:10m}}")
+    private Duration usersTtl;
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider's default manager is JVM-wide; a private one keeps a second context in the same
+        // JVM (another test context, for one) from destroying this context's regions.
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("maintenance-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        createCache(cacheManager, USERS_REGION, boundedRegion(usersTtl));
+        createCache(cacheManager, USER_QUERIES_REGION, boundedRegion(usersTtl));
+        createCache(cacheManager, QUERY_RESULTS_REGION, boundedRegion(ttl));
+        // Query results are only valid while their table timestamps are known, so this region must never evict.
+        createCache(cacheManager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+    
+    private CaffeineConfiguration<Object, Object> boundedRegion(Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+    
+    private static void createCache(CacheManager cacheManager, String name,
+                                    CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(name) != null) {
+            cacheManager.destroyCache(name);
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -24,7 +24,7 @@ public class DataInitializer implements CommandLineRunner {
     }
     
     private void initializeUsers() {
-        if (userService.getAllUsers().isEmpty()) {
+        if (userService.getUserCount() == 0) {
             User admin = new User();
             admin.setName("Admin User");
             admin.setEmail("admin@maintenance.com");
@@ -76,7 +76,7 @@ public class DataInitializer implements CommandLineRunner {
     }
     
     private void initializeSampleRequests() {
-        if (requestService.getAllRequests().isEmpty()) {
+        if (requestService.getTotalRequestCount() == 0) {
             User developer = userService.getUserByEmail("john.doe@maintenance.com").orElse(null);
             User alice = userService.getUserByEmail("alice.johnson@maintenance.com").orElse(null);
             User bob = userService.getUserByEmail("bob.smith@maintenance.com").orElse(null);
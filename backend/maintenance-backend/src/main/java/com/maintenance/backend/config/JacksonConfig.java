@@ -0,0 +1,16 @@
+package com.maintenance.backend.config;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+    
+    // Serializing an entity must never trigger lazy loading: associations that the query did not
+    // fetch are written as null, so what goes over the wire is decided by the repository's fetch graph.
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        return new Hibernate6Module();
+    }
+}
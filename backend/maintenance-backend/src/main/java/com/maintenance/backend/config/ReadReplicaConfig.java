@@ -0,0 +1,88 @@
+package com.maintenance.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Splits traffic between the primary database and a read replica when
+ * maintenance.datasource.replica.url is set; without it the auto-configured single
+ * datasource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "maintenance.datasource.replica.url")
+public class ReadReplicaConfig {
+    
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${maintenance.datasource.read-your-writes-ms:5000}") long windowMillis) {
+        return new ReadYourWritesTracker(windowMillis);
+    }
+    
+    @Bean
+    public OncePerRequestFilter readYourWritesFilter(ReadYourWritesTracker tracker) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                tracker.bind(request.getHeader("Authorization"));
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    tracker.clear();
+                }
+            }
+        };
+    }
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Value("${maintenance.datasource.replica.url}") String url,
+            @Value("${maintenance.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${maintenance.datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${maintenance.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReadYourWritesTracker tracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,62 @@
+package com.maintenance.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions started while serving an HTTP request to the replica pool and
+ * everything else to the primary. Only the transaction's read-only flag decides, so this covers
+ * Spring Data's implicit read-only transactions around bare repository calls too; a read that
+ * must see the primary, such as one whose result is cached, runs in a read-write transaction.
+ * Startup, scheduled and background work always reads the primary: it often decides what to
+ * write next, and the replica may be behind or, right after a deployment, empty. Must sit behind
+ * a LazyConnectionDataSourceProxy so the transaction's read-only flag is already set when the
+ * physical connection is chosen.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    
+    private final ReadYourWritesTracker tracker;
+    
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            target = usesReplica() ? Target.REPLICA : Target.PRIMARY;
+        } else {
+            target = Target.PRIMARY;
+            rememberWriteOnCommit();
+        }
+        logger.trace("Routing connection to {}", target);
+        return target;
+    }
+    
+    private boolean usesReplica() {
+        return tracker.isServingRequest() && !tracker.isSticky();
+    }
+    
+    private void rememberWriteOnCommit() {
+        String caller = tracker.currentCaller();
+        if (caller == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(caller);
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.maintenance.backend.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which callers committed a write recently so their reads can stay on the
+ * primary until the replica has had time to catch up. Callers are identified by the
+ * Authorization header of the HTTP request being served on the current thread; threads
+ * not serving a request (startup, schedulers, background workers) are never bound.
+ */
+public class ReadYourWritesTracker {
+    
+    private final ThreadLocal<String> currentCaller = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> servingRequest = new ThreadLocal<>();
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+    
+    public void bind(String caller) {
+        currentCaller.set(caller);
+        servingRequest.set(Boolean.TRUE);
+    }
+    
+    public void clear() {
+        currentCaller.remove();
+        servingRequest.remove();
+    }
+    
+    public boolean isServingRequest() {
+        return servingRequest.get() != null;
+    }
+    
+    public String currentCaller() {
+        return currentCaller.get();
+    }
+    
+    public boolean isSticky() {
+        String caller = currentCaller.get();
+        if (caller == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(caller);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > windowNanos) {
+            lastWriteNanos.remove(caller, writtenAt);
+            return false;
+        }
+        return true;
+    }
+    
+    public void recordWrite(String caller) {
+        if (caller != null) {
+            lastWriteNanos.put(caller, System.nanoTime());
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWriteNanos.entrySet().removeIf(entry -> now - entry.getValue() > windowNanos);
+    }
+}
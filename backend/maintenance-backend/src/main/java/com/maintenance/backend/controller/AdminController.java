@@ -1,12 +1,31 @@
 package com.maintenance.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AnalyticsSnapshot;
+import com.maintenance.backend.dto.AuditChainVerification;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.dto.CacheRegionStats;
+import com.maintenance.backend.dto.OutboxStatus;
+import com.maintenance.backend.dto.PushStatus;
+import com.maintenance.backend.dto.SearchIndexStatus;
 import com.maintenance.backend.model.User;
 import com.maintenance.backend.service.UserService;
-import com.maintenance.backend.service.MaintenanceRequestService;
+import com.maintenance.backend.service.AnalyticsService;
+import com.maintenance.backend.service.AuditChainStore;
+import com.maintenance.backend.service.CacheStatisticsService;
+import com.maintenance.backend.service.ExportService;
+import com.maintenance.backend.service.OutboxDispatcher;
+import com.maintenance.backend.service.SearchIndexService;
+import com.maintenance.backend.service.WorkflowPushService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.HashMap;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.channels.Channels;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,11 +39,37 @@ public class AdminController {
     private UserService userService;
     
     @Autowired
-    private MaintenanceRequestService requestService;
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+    
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
+    @Autowired
+    private AuditChainStore auditChainStore;
+    
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    
+    @Autowired
+    private WorkflowPushService pushService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
     
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/users/{id}")
@@ -87,24 +132,93 @@ public class AdminController {
         }
     }
     
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStats());
+    }
+    
     @GetMapping("/analytics")
-    public ResponseEntity<?> getAnalytics() {
-        Map<String, Object> analytics = new HashMap<>();
-        
-        analytics.put("totalUsers", userService.getAllUsers().size());
-        analytics.put("activeUsers", userService.getActiveUsers().size());
-        analytics.put("totalRequests", requestService.getAllRequests().size());
-        analytics.put("pendingRequests", requestService.getPendingApprovalRequests().size());
-        
-        Map<String, Object> requestsByType = new HashMap<>();
-        requestsByType.put("sqlFixes", requestService.getRequestCountByTypeThisMonth(com.maintenance.backend.model.MaintenanceRequest.RequestType.SQL_FIX));
-        requestsByType.put("configUpdates", requestService.getRequestCountByTypeThisMonth(com.maintenance.backend.model.MaintenanceRequest.RequestType.CONFIG_UPDATE));
-        requestsByType.put("jobControls", requestService.getRequestCountByTypeThisMonth(com.maintenance.backend.model.MaintenanceRequest.RequestType.JOB_CONTROL));
-        requestsByType.put("logManagement", requestService.getRequestCountByTypeThisMonth(com.maintenance.backend.model.MaintenanceRequest.RequestType.LOG_MANAGEMENT));
-        requestsByType.put("patchDeployment", requestService.getRequestCountByTypeThisMonth(com.maintenance.backend.model.MaintenanceRequest.RequestType.PATCH_DEPLOYMENT));
-        
-        analytics.put("requestsByType", requestsByType);
-        
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<AnalyticsSnapshot> getAnalytics() {
+        return ResponseEntity.ok(analyticsService.getSnapshot());
+    }
+    
+    // Runs on the indexer thread; progress is polled from GET /admin/search.
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<SearchIndexStatus> rebuildSearchIndex() {
+        searchIndexService.rebuild();
+        return ResponseEntity.accepted().body(searchIndexService.getStatus());
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<SearchIndexStatus> getSearchIndexStatus() {
+        return ResponseEntity.ok(searchIndexService.getStatus());
+    }
+    
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStatus> getOutboxStatus() {
+        return ResponseEntity.ok(outboxDispatcher.getStatus());
+    }
+    
+    @GetMapping("/push")
+    public ResponseEntity<PushStatus> getPushStatus() {
+        return ResponseEntity.ok(pushService.getStatus());
+    }
+    
+    @GetMapping("/audit/verify")
+    public ResponseEntity<AuditChainVerification> verifyAuditChain() {
+        return ResponseEntity.ok(auditChainStore.verify());
+    }
+    
+    @GetMapping("/audit/records")
+    public ResponseEntity<List<AuditEvent>> getAuditRecords(
+            @RequestParam(required = false) Long requestId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(auditChainStore.find(requestId, from, to));
+    }
+    
+    @GetMapping("/audit/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditChain() {
+        StreamingResponseBody body = out -> auditChainStore.export(Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-chain.bin\"")
+                .body(body);
+    }
+    
+    @GetMapping("/export/requests")
+    public ResponseEntity<StreamingResponseBody> exportRequests(@RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            return streamExport(exportFormat, "requests", out -> exportService.exportRequests(exportFormat, out));
+        } catch (IllegalArgumentException e) {
+            return exportError(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/export/audit-logs")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(@RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            return streamExport(exportFormat, "audit-logs", out -> exportService.exportAuditLogs(exportFormat, out));
+        } catch (IllegalArgumentException e) {
+            return exportError(e.getMessage());
+        }
+    }
+    
+    private ResponseEntity<StreamingResponseBody> streamExport(ExportService.Format format, String name,
+                                                               StreamingResponseBody body) {
+        String filename = name + "." + format.name().toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
+    // Streaming handlers can only return a StreamingResponseBody, so the usual error map is written through one.
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
     }
 }
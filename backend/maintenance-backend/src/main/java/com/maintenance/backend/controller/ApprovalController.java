@@ -1,14 +1,23 @@
 package com.maintenance.backend.controller;
 
+import com.maintenance.backend.dto.BulkApprovalItem;
+import com.maintenance.backend.dto.BulkApprovalResponse;
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.PendingApprovalSummary;
 import com.maintenance.backend.model.ApprovalWorkflow;
 import com.maintenance.backend.model.MaintenanceRequest;
 import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.ApprovalInboxService;
 import com.maintenance.backend.service.ApprovalWorkflowService;
 import com.maintenance.backend.service.UserService;
 import com.maintenance.backend.service.MaintenanceRequestService;
+import com.maintenance.backend.service.OptimisticRetry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,18 +30,32 @@ public class ApprovalController {
     @Autowired
     private ApprovalWorkflowService approvalService;
     
+    @Autowired
+    private ApprovalInboxService inboxService;
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private MaintenanceRequestService requestService;
     
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
     @GetMapping("/pending")
-    public ResponseEntity<?> getPendingApprovals(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getPendingApprovals(@RequestHeader("Authorization") String token,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 WebRequest webRequest) {
         try {
             User approver = getUserFromToken(token);
-            List<ApprovalWorkflow> approvals = approvalService.getPendingApprovals(approver);
-            return ResponseEntity.ok(approvals);
+            ApprovalInboxService.Inbox inbox = inboxService.getInbox(approver.getId());
+            // Sets the 304 status and ETag header itself when the client's copy is current.
+            if (webRequest.checkNotModified(inbox.etag())) {
+                return null;
+            }
+            CursorPage<PendingApprovalSummary> approvals = inboxService.getPage(inbox, cursor, limit);
+            return ResponseEntity.ok().eTag(inbox.etag()).body(approvals);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -64,6 +87,9 @@ public class ApprovalController {
             }
             
             return ResponseEntity.badRequest().body(Map.of("error", "Request or peer reviewer not found"));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Request was modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -85,6 +111,9 @@ public class ApprovalController {
             }
             
             return ResponseEntity.badRequest().body(Map.of("error", "Request or manager not found"));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Request was modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -100,10 +129,31 @@ public class ApprovalController {
             ApprovalWorkflow.ApprovalStatus status = ApprovalWorkflow.ApprovalStatus.valueOf(
                 decision.getDecision().toUpperCase());
             
-            ApprovalWorkflow processed = approvalService.processApproval(
-                approvalId, status, decision.getComments(), approver);
+            ApprovalWorkflow processed = optimisticRetry.execute(() -> approvalService.processApproval(
+                approvalId, status, decision.getComments(), approver));
             
             return ResponseEntity.ok(processed);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Approval was modified concurrently; reload and try again"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/bulk-process")
+    public ResponseEntity<?> processApprovals(@RequestBody List<BulkApprovalItem> items,
+                                              @RequestHeader("Authorization") String token) {
+        try {
+            User approver = getUserFromToken(token);
+            
+            BulkApprovalResponse response = optimisticRetry.execute(
+                    () -> approvalService.processApprovals(items, approver));
+            
+            return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Approvals were modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
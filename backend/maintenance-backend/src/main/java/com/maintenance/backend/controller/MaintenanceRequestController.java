@@ -1,14 +1,25 @@
 package com.maintenance.backend.controller;
 
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.dto.RequestFilter;
+import com.maintenance.backend.dto.RequestStats;
+import com.maintenance.backend.dto.TimelineEntry;
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
 import com.maintenance.backend.model.MaintenanceRequest;
 import com.maintenance.backend.model.User;
 import com.maintenance.backend.service.MaintenanceRequestService;
+import com.maintenance.backend.service.OptimisticRetry;
+import com.maintenance.backend.service.SearchIndexService;
 import com.maintenance.backend.service.UserService;
 import com.maintenance.backend.service.SqlValidationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,42 +35,106 @@ public class MaintenanceRequestController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
     @GetMapping
-    public ResponseEntity<List<MaintenanceRequest>> getAllRequests() {
-        return ResponseEntity.ok(requestService.getAllRequests());
+    public ResponseEntity<?> getAllRequests(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(requestService.getRequestsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<?> getRequestById(@PathVariable Long id) {
-        Optional<MaintenanceRequest> request = requestService.getRequestById(id);
+        Optional<MaintenanceRequest> request = requestService.getRequestDetail(id);
         if (request.isPresent()) {
             return ResponseEntity.ok(request.get());
         }
+        Optional<ArchivedMaintenanceRequest> archived = requestService.getArchivedRequest(id);
+        if (archived.isPresent()) {
+            return ResponseEntity.ok(archived.get());
+        }
         return ResponseEntity.notFound().build();
     }
     
+    @GetMapping("/{id}/audit")
+    public ResponseEntity<?> getAuditTimeline(@PathVariable Long id,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
+        try {
+            Optional<CursorPage<TimelineEntry>> timeline = requestService.getAuditTimeline(id, cursor, limit);
+            if (timeline.isPresent()) {
+                return ResponseEntity.ok(timeline.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getRequestsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getRequestsByUser(@PathVariable Long userId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
         Optional<User> user = userService.getUserById(userId);
         if (user.isPresent()) {
-            List<MaintenanceRequest> requests = requestService.getRequestsBySubmitter(user.get());
-            return ResponseEntity.ok(requests);
+            try {
+                CursorPage<MaintenanceRequestSummary> requests = requestService.getRequestsBySubmitter(user.get(), cursor, limit);
+                return ResponseEntity.ok(requests);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
         }
         return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<MaintenanceRequest>> getRequestsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getRequestsByStatus(@PathVariable String status,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
         try {
             MaintenanceRequest.RequestStatus requestStatus = MaintenanceRequest.RequestStatus.valueOf(status.toUpperCase());
-            return ResponseEntity.ok(requestService.getRequestsByStatus(requestStatus));
+            return ResponseEntity.ok(requestService.getRequestsByStatus(requestStatus, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterRequests(@ModelAttribute RequestFilter filter,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(requestService.getFilteredRequests(filter, cursor, limit));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<?> searchRequests(@RequestParam String q,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(searchIndexService.search(q, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
     
     @GetMapping("/pending-approval")
-    public ResponseEntity<List<MaintenanceRequest>> getPendingApprovalRequests() {
+    public ResponseEntity<List<MaintenanceRequestSummary>> getPendingApprovalRequests() {
         return ResponseEntity.ok(requestService.getPendingApprovalRequests());
     }
     
@@ -83,6 +158,9 @@ public class MaintenanceRequestController {
             User user = getUserFromToken(token);
             MaintenanceRequest updated = requestService.updateRequest(id, request, user);
             return ResponseEntity.ok(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Request was modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -93,8 +171,11 @@ public class MaintenanceRequestController {
                                          @RequestHeader("Authorization") String token) {
         try {
             User submitter = getUserFromToken(token);
-            MaintenanceRequest submitted = requestService.submitRequest(id, submitter);
+            MaintenanceRequest submitted = optimisticRetry.execute(() -> requestService.submitRequest(id, submitter));
             return ResponseEntity.ok(submitted);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Request was modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -107,6 +188,9 @@ public class MaintenanceRequestController {
             User executor = getUserFromToken(token);
             MaintenanceRequest executed = requestService.executeRequest(id, executor);
             return ResponseEntity.ok(executed);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Request was modified concurrently; reload and try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -128,18 +212,8 @@ public class MaintenanceRequestController {
     }
     
     @GetMapping("/stats")
-    public ResponseEntity<?> getRequestStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("pendingRequests", requestService.getRequestCountByStatus(MaintenanceRequest.RequestStatus.PENDING_APPROVAL));
-        stats.put("completedThisMonth", requestService.getRequestCountByStatus(MaintenanceRequest.RequestStatus.COMPLETED));
-        stats.put("sqlFixesThisMonth", requestService.getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType.SQL_FIX));
-        stats.put("configUpdatesThisMonth", requestService.getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType.CONFIG_UPDATE));
-        stats.put("jobControlsThisMonth", requestService.getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType.JOB_CONTROL));
-        stats.put("logManagementThisMonth", requestService.getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType.LOG_MANAGEMENT));
-        stats.put("patchDeploymentThisMonth", requestService.getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType.PATCH_DEPLOYMENT));
-        
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<RequestStats> getRequestStats() {
+        return ResponseEntity.ok(requestService.getRequestStats());
     }
     
     private User getUserFromToken(String token) {
@@ -0,0 +1,104 @@
+package com.maintenance.backend.controller;
+
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.UserService;
+import com.maintenance.backend.service.WorkflowPushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/stream")
+@CrossOrigin(origins = "*")
+public class StreamController {
+    
+    @Autowired
+    private WorkflowPushService pushService;
+    
+    @Autowired
+    private UserService userService;
+    
+    // EventSource cannot set headers, so the token may also come as a query parameter.
+    @GetMapping
+    public ResponseEntity<ResponseBodyEmitter> openStream(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(value = "token", required = false) String tokenParam,
+            @RequestParam(required = false) List<Long> requests,
+            @RequestParam(defaultValue = "true") boolean inbox) {
+        try {
+            User user = getUserFromToken(token != null ? token : tokenParam);
+            ResponseBodyEmitter emitter = pushService.connect(user, toSet(requests), inbox);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .cacheControl(CacheControl.noStore())
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            return streamError(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (Exception e) {
+            return streamError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    @PutMapping("/{clientId}/requests")
+    public ResponseEntity<?> updateRequests(@PathVariable String clientId,
+                                            @RequestBody List<Long> requestIds,
+                                            @RequestHeader("Authorization") String token) {
+        try {
+            User user = getUserFromToken(token);
+            Optional<Set<Long>> following = pushService.updateRequests(clientId, user, toSet(requestIds));
+            if (following.isPresent()) {
+                return ResponseEntity.ok(Map.of("clientId", clientId, "requestIds", following.get()));
+            }
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Streaming handlers can only return an emitter, so the usual error map is written through one.
+    private static ResponseEntity<ResponseBodyEmitter> streamError(HttpStatus status, String message) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send(Map.of("error", message), MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+    
+    private static Set<Long> toSet(List<Long> ids) {
+        Set<Long> set = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    set.add(id);
+                }
+            }
+        }
+        return set;
+    }
+    
+    private User getUserFromToken(String token) {
+        if (token == null) {
+            throw new RuntimeException("Invalid token or user not found");
+        }
+        String userId = token.replace("Bearer mock-jwt-token-", "").replace("mock-jwt-token-", "");
+        Optional<User> userOpt = userService.getUserById(Long.parseLong(userId));
+        if (userOpt.isPresent()) {
+            return userOpt.get();
+        }
+        throw new RuntimeException("Invalid token or user not found");
+    }
+}
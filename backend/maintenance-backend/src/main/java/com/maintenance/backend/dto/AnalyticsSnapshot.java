@@ -0,0 +1,52 @@
+package com.maintenance.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class AnalyticsSnapshot {
+    
+    private final long totalUsers;
+    private final long activeUsers;
+    private final long totalRequests;
+    private final long pendingRequests;
+    private final Map<String, Long> requestsByType;
+    private final LocalDateTime computedAt = LocalDateTime.now();
+    private final long computedAtNanos = System.nanoTime();
+    
+    public AnalyticsSnapshot(long totalUsers, long activeUsers, long totalRequests, long pendingRequests,
+                             Map<String, Long> requestsByType) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.totalRequests = totalRequests;
+        this.pendingRequests = pendingRequests;
+        this.requestsByType = requestsByType;
+    }
+    
+    public boolean isOlderThan(long ttlMillis) {
+        return System.nanoTime() - computedAtNanos > ttlMillis * 1_000_000L;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public long getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public Map<String, Long> getRequestsByType() {
+        return requestsByType;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+}
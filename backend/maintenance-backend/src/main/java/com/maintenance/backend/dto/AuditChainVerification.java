@@ -0,0 +1,15 @@
+package com.maintenance.backend.dto;
+
+/**
+ * Outcome of re-hashing the audit segment chain. {@code failedSequence} is the first record
+ * whose hash or link did not match, or {@code null} when the whole chain verified.
+ */
+public record AuditChainVerification(
+        boolean valid,
+        int segments,
+        long records,
+        long lastSequence,
+        Long failedSequence,
+        String message,
+        long elapsedMillis) {
+}
@@ -0,0 +1,19 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.AuditLog;
+import java.time.LocalDateTime;
+
+/**
+ * An audit entry on its way to {@code audit_logs}. The sequence number orders events in the
+ * write-ahead log and marks how far the writer has got.
+ */
+public record AuditEvent(
+        long sequence,
+        Long requestId,
+        Long userId,
+        AuditLog.ActionType action,
+        String details,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt) {
+}
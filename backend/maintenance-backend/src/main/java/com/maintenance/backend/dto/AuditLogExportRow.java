@@ -0,0 +1,39 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.ArchivedAuditLog;
+import com.maintenance.backend.model.AuditLog;
+import java.time.LocalDateTime;
+
+/**
+ * One exported audit entry. Component order is the CSV column order; origin is
+ * {@link RequestExportRow#HOT} or {@link RequestExportRow#ARCHIVE}.
+ */
+public record AuditLogExportRow(
+        Long id,
+        Long requestId,
+        Long userId,
+        String userName,
+        AuditLog.ActionType action,
+        String details,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt,
+        String origin) {
+    
+    public static AuditLogExportRow of(AuditLog log) {
+        return new AuditLogExportRow(log.getId(),
+                log.getRequest() == null ? null : log.getRequest().getId(),
+                log.getUser() == null ? null : log.getUser().getId(),
+                log.getUser() == null ? null : log.getUser().getName(),
+                log.getAction(), log.getDetails(), log.getIpAddress(), log.getUserAgent(), log.getCreatedAt(),
+                RequestExportRow.HOT);
+    }
+    
+    public static AuditLogExportRow of(ArchivedAuditLog log) {
+        return new AuditLogExportRow(log.getId(), log.getRequestId(),
+                log.getUser() == null ? null : log.getUser().getId(),
+                log.getUser() == null ? null : log.getUser().getName(),
+                log.getAction(), log.getDetails(), log.getIpAddress(), log.getUserAgent(), log.getCreatedAt(),
+                RequestExportRow.ARCHIVE);
+    }
+}
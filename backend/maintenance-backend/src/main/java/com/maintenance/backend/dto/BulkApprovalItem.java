@@ -0,0 +1,4 @@
+package com.maintenance.backend.dto;
+
+public record BulkApprovalItem(Long approvalId, String decision, String comments) {
+}
@@ -0,0 +1,11 @@
+package com.maintenance.backend.dto;
+
+import java.util.List;
+
+public record BulkApprovalResponse(int processed, int failed, List<BulkApprovalResult> results) {
+    
+    public static BulkApprovalResponse of(List<BulkApprovalResult> results) {
+        int processed = (int) results.stream().filter(BulkApprovalResult::success).count();
+        return new BulkApprovalResponse(processed, results.size() - processed, results);
+    }
+}
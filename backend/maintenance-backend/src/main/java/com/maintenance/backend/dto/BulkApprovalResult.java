@@ -0,0 +1,24 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+
+// Outcome of one item in a bulk approval; error is set exactly when success is false.
+public record BulkApprovalResult(
+        Long approvalId,
+        boolean success,
+        ApprovalWorkflow.ApprovalStatus approvalStatus,
+        Long requestId,
+        MaintenanceRequest.RequestStatus requestStatus,
+        String error) {
+    
+    public static BulkApprovalResult processed(ApprovalWorkflow approval) {
+        MaintenanceRequest request = approval.getRequest();
+        return new BulkApprovalResult(approval.getId(), true, approval.getStatus(),
+                request.getId(), request.getStatus(), null);
+    }
+    
+    public static BulkApprovalResult failed(Long approvalId, String error) {
+        return new BulkApprovalResult(approvalId, false, null, null, null, error);
+    }
+}
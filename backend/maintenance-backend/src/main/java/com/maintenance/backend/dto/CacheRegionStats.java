@@ -0,0 +1,9 @@
+package com.maintenance.backend.dto;
+
+public record CacheRegionStats(String region, long hits, long misses, long puts) {
+    
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,35 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import java.time.LocalDateTime;
+
+/**
+ * List-view shape of a request. Carries only the short columns; the TEXT payload fields are
+ * served by {@code GET /requests/{id}}.
+ */
+public record MaintenanceRequestSummary(
+        Long id,
+        String title,
+        MaintenanceRequest.RequestType type,
+        MaintenanceRequest.RequestStatus status,
+        MaintenanceRequest.Priority priority,
+        String application,
+        MaintenanceRequest.Environment environment,
+        UserSummary submitter,
+        UserSummary peerReviewer,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime completedAt) {
+    
+    // Flat form used by JPQL constructor expressions.
+    public MaintenanceRequestSummary(Long id, String title, MaintenanceRequest.RequestType type,
+                                     MaintenanceRequest.RequestStatus status, MaintenanceRequest.Priority priority,
+                                     String application, MaintenanceRequest.Environment environment,
+                                     Long submitterId, String submitterName,
+                                     Long peerReviewerId, String peerReviewerName,
+                                     LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime completedAt) {
+        this(id, title, type, status, priority, application, environment,
+                UserSummary.of(submitterId, submitterName), UserSummary.of(peerReviewerId, peerReviewerName),
+                createdAt, updatedAt, completedAt);
+    }
+}
@@ -0,0 +1,8 @@
+package com.maintenance.backend.dto;
+
+import java.util.Map;
+
+// Last committed outbox id, and for this node the last id each subscriber has stored and the number
+// of ids it is still re-checking because they had not committed when later events were delivered.
+public record OutboxStatus(long lastEventId, String nodeId, Map<String, Long> offsets, int openGaps) {
+}
@@ -0,0 +1,40 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row for a pending approval: the approval plus the short columns of its request.
+ */
+public record PendingApprovalSummary(
+        Long id,
+        ApprovalWorkflow.ApprovalType type,
+        LocalDateTime createdAt,
+        Long requestId,
+        String requestTitle,
+        MaintenanceRequest.RequestType requestType,
+        MaintenanceRequest.Priority priority,
+        String application,
+        MaintenanceRequest.Environment environment,
+        UserSummary submitter) {
+    
+    // Flat form used by JPQL constructor expressions.
+    public PendingApprovalSummary(Long id, ApprovalWorkflow.ApprovalType type, LocalDateTime createdAt,
+                                  Long requestId, String requestTitle, MaintenanceRequest.RequestType requestType,
+                                  MaintenanceRequest.Priority priority, String application,
+                                  MaintenanceRequest.Environment environment,
+                                  Long submitterId, String submitterName) {
+        this(id, type, createdAt, requestId, requestTitle, requestType, priority, application, environment,
+                UserSummary.of(submitterId, submitterName));
+    }
+    
+    public static PendingApprovalSummary of(ApprovalWorkflow approval) {
+        MaintenanceRequest request = approval.getRequest();
+        UserSummary submitter = request.getSubmitter() == null ? null
+                : new UserSummary(request.getSubmitter().getId(), request.getSubmitter().getName());
+        return new PendingApprovalSummary(approval.getId(), approval.getType(), approval.getCreatedAt(),
+                request.getId(), request.getTitle(), request.getType(), request.getPriority(),
+                request.getApplication(), request.getEnvironment(), submitter);
+    }
+}
@@ -0,0 +1,24 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.OutboxEvent;
+import java.time.LocalDateTime;
+
+// Payload of a pushed workflow event; id is the outbox id, which is also the SSE event id.
+public record PushEvent(
+        Long id,
+        OutboxEvent.EventType type,
+        Long requestId,
+        Long approvalId,
+        Long approverId,
+        Long actorId,
+        MaintenanceRequest.RequestStatus fromStatus,
+        MaintenanceRequest.RequestStatus toStatus,
+        LocalDateTime occurredAt) {
+    
+    public static PushEvent of(OutboxEvent event) {
+        return new PushEvent(event.getId(), event.getEventType(), event.getRequestId(), event.getApprovalId(),
+                event.getApproverId(), event.getActorId(), event.getFromStatus(), event.getToStatus(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,5 @@
+package com.maintenance.backend.dto;
+
+// Connected push clients and frame counters since startup.
+public record PushStatus(int clients, long framesSent, long framesDropped, long resyncs, long disconnects) {
+}
@@ -0,0 +1,68 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
+import com.maintenance.backend.model.MaintenanceRequest;
+import java.time.LocalDateTime;
+
+/**
+ * One exported request with its payload text. Component order is the CSV column order; origin
+ * tells a request still in the hot tables from one moved to the archive.
+ */
+public record RequestExportRow(
+        Long id,
+        String title,
+        MaintenanceRequest.RequestType type,
+        MaintenanceRequest.RequestStatus status,
+        MaintenanceRequest.Priority priority,
+        String application,
+        MaintenanceRequest.Environment environment,
+        Long submitterId,
+        String submitterName,
+        Long peerReviewerId,
+        String peerReviewerName,
+        String description,
+        String businessJustification,
+        String rollbackPlan,
+        String sqlStatement,
+        String configContent,
+        String jobDetails,
+        String validationResult,
+        String executionResult,
+        Integer affectedRows,
+        Double executionTime,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime completedAt,
+        String origin) {
+    
+    public static final String HOT = "hot";
+    public static final String ARCHIVE = "archive";
+    
+    public static RequestExportRow of(MaintenanceRequest request) {
+        return new RequestExportRow(request.getId(), request.getTitle(), request.getType(), request.getStatus(),
+                request.getPriority(), request.getApplication(), request.getEnvironment(),
+                request.getSubmitter() == null ? null : request.getSubmitter().getId(),
+                request.getSubmitter() == null ? null : request.getSubmitter().getName(),
+                request.getPeerReviewer() == null ? null : request.getPeerReviewer().getId(),
+                request.getPeerReviewer() == null ? null : request.getPeerReviewer().getName(),
+                request.getDescription(), request.getBusinessJustification(), request.getRollbackPlan(),
+                request.getSqlStatement(), request.getConfigContent(), request.getJobDetails(),
+                request.getValidationResult(), request.getExecutionResult(), request.getAffectedRows(),
+                request.getExecutionTime(), request.getCreatedAt(), request.getUpdatedAt(), request.getCompletedAt(),
+                HOT);
+    }
+    
+    public static RequestExportRow of(ArchivedMaintenanceRequest request) {
+        return new RequestExportRow(request.getId(), request.getTitle(), request.getType(), request.getStatus(),
+                request.getPriority(), request.getApplication(), request.getEnvironment(),
+                request.getSubmitter() == null ? null : request.getSubmitter().getId(),
+                request.getSubmitter() == null ? null : request.getSubmitter().getName(),
+                request.getPeerReviewer() == null ? null : request.getPeerReviewer().getId(),
+                request.getPeerReviewer() == null ? null : request.getPeerReviewer().getName(),
+                request.getDescription(), request.getBusinessJustification(), request.getRollbackPlan(),
+                request.getSqlStatement(), request.getConfigContent(), request.getJobDetails(),
+                request.getValidationResult(), request.getExecutionResult(), request.getAffectedRows(),
+                request.getExecutionTime(), request.getCreatedAt(), request.getUpdatedAt(), request.getCompletedAt(),
+                ARCHIVE);
+    }
+}
@@ -0,0 +1,140 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Query-string criteria for {@code GET /requests/filter}. Multi-valued criteria match any of
+ * their values; all criteria that are present must match.
+ */
+public class RequestFilter {
+    
+    private List<MaintenanceRequest.RequestStatus> status;
+    private List<MaintenanceRequest.RequestType> type;
+    private List<MaintenanceRequest.Priority> priority;
+    private List<MaintenanceRequest.Environment> environment;
+    private String application;
+    private Long submitterId;
+    private Long peerReviewerId;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime completedFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime completedTo;
+    
+    private String sort = "createdAt";
+    private String direction = "desc";
+
+    public List<MaintenanceRequest.RequestStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<MaintenanceRequest.RequestStatus> status) {
+        this.status = status;
+    }
+
+    public List<MaintenanceRequest.RequestType> getType() {
+        return type;
+    }
+
+    public void setType(List<MaintenanceRequest.RequestType> type) {
+        this.type = type;
+    }
+
+    public List<MaintenanceRequest.Priority> getPriority() {
+        return priority;
+    }
+
+    public void setPriority(List<MaintenanceRequest.Priority> priority) {
+        this.priority = priority;
+    }
+
+    public List<MaintenanceRequest.Environment> getEnvironment() {
+        return environment;
+    }
+
+    public void setEnvironment(List<MaintenanceRequest.Environment> environment) {
+        this.environment = environment;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public void setApplication(String application) {
+        this.application = application;
+    }
+
+    public Long getSubmitterId() {
+        return submitterId;
+    }
+
+    public void setSubmitterId(Long submitterId) {
+        this.submitterId = submitterId;
+    }
+
+    public Long getPeerReviewerId() {
+        return peerReviewerId;
+    }
+
+    public void setPeerReviewerId(Long peerReviewerId) {
+        this.peerReviewerId = peerReviewerId;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public LocalDateTime getCompletedFrom() {
+        return completedFrom;
+    }
+
+    public void setCompletedFrom(LocalDateTime completedFrom) {
+        this.completedFrom = completedFrom;
+    }
+
+    public LocalDateTime getCompletedTo() {
+        return completedTo;
+    }
+
+    public void setCompletedTo(LocalDateTime completedTo) {
+        this.completedTo = completedTo;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+}
@@ -0,0 +1,65 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class RequestStats {
+    
+    private final long pendingRequests;
+    private final Map<MaintenanceRequest.RequestStatus, Long> byStatusThisMonth =
+            new EnumMap<>(MaintenanceRequest.RequestStatus.class);
+    private final Map<MaintenanceRequest.RequestType, Long> byTypeThisMonth =
+            new EnumMap<>(MaintenanceRequest.RequestType.class);
+    
+    public RequestStats(long pendingRequests, List<StatusTypeCount> monthCounts) {
+        this.pendingRequests = pendingRequests;
+        for (MaintenanceRequest.RequestStatus status : MaintenanceRequest.RequestStatus.values()) {
+            byStatusThisMonth.put(status, 0L);
+        }
+        for (MaintenanceRequest.RequestType type : MaintenanceRequest.RequestType.values()) {
+            byTypeThisMonth.put(type, 0L);
+        }
+        for (StatusTypeCount row : monthCounts) {
+            byStatusThisMonth.merge(row.status(), row.count(), Long::sum);
+            byTypeThisMonth.merge(row.type(), row.count(), Long::sum);
+        }
+    }
+
+    public long getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public long getCompletedThisMonth() {
+        return byStatusThisMonth.get(MaintenanceRequest.RequestStatus.COMPLETED);
+    }
+
+    public long getSqlFixesThisMonth() {
+        return byTypeThisMonth.get(MaintenanceRequest.RequestType.SQL_FIX);
+    }
+
+    public long getConfigUpdatesThisMonth() {
+        return byTypeThisMonth.get(MaintenanceRequest.RequestType.CONFIG_UPDATE);
+    }
+
+    public long getJobControlsThisMonth() {
+        return byTypeThisMonth.get(MaintenanceRequest.RequestType.JOB_CONTROL);
+    }
+
+    public long getLogManagementThisMonth() {
+        return byTypeThisMonth.get(MaintenanceRequest.RequestType.LOG_MANAGEMENT);
+    }
+
+    public long getPatchDeploymentThisMonth() {
+        return byTypeThisMonth.get(MaintenanceRequest.RequestType.PATCH_DEPLOYMENT);
+    }
+
+    public Map<MaintenanceRequest.RequestStatus, Long> getByStatusThisMonth() {
+        return byStatusThisMonth;
+    }
+
+    public Map<MaintenanceRequest.RequestType, Long> getByTypeThisMonth() {
+        return byTypeThisMonth;
+    }
+}
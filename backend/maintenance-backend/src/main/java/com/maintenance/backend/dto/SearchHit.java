@@ -0,0 +1,7 @@
+package com.maintenance.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record SearchHit(Long id, String title, String type, String status, String application,
+                        String environment, LocalDateTime createdAt, float score) {
+}
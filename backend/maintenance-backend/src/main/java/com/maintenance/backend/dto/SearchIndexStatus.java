@@ -0,0 +1,5 @@
+package com.maintenance.backend.dto;
+
+// Documents in the search index, including updates not yet visible to searches, and whether a rebuild is running.
+public record SearchIndexStatus(int documents, boolean rebuilding) {
+}
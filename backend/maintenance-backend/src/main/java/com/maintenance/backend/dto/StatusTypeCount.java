@@ -0,0 +1,6 @@
+package com.maintenance.backend.dto;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+
+public record StatusTypeCount(MaintenanceRequest.RequestStatus status, MaintenanceRequest.RequestType type, long count) {
+}
@@ -0,0 +1,69 @@
+package com.maintenance.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a request timeline ordered by {@code (occurredAt DESC, kind, id DESC)}. Audit
+ * entries and approvals have separate id sequences, so the kind breaks ties between them.
+ */
+public class TimelineCursor {
+    
+    private static final TimelineCursor START = new TimelineCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59), TimelineEntry.Kind.APPROVAL, Long.MAX_VALUE);
+    
+    private final LocalDateTime occurredAt;
+    private final TimelineEntry.Kind kind;
+    private final Long id;
+    
+    public TimelineCursor(LocalDateTime occurredAt, TimelineEntry.Kind kind, Long id) {
+        this.occurredAt = occurredAt;
+        this.kind = kind;
+        this.id = id;
+    }
+    
+    public static TimelineCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new TimelineCursor(LocalDateTime.parse(parts[0]), TimelineEntry.Kind.valueOf(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token);
+        }
+    }
+    
+    public static TimelineCursor of(TimelineEntry entry) {
+        return new TimelineCursor(entry.occurredAt(), entry.kind(), entry.id());
+    }
+    
+    public String encode() {
+        String raw = occurredAt + "|" + kind + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Entries of the given kind at the cursor's timestamp come after the cursor only below this id.
+    public Long idBoundFor(TimelineEntry.Kind entryKind) {
+        int order = entryKind.compareTo(kind);
+        if (order == 0) {
+            return id;
+        }
+        return order > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public TimelineEntry.Kind getKind() {
+        return kind;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
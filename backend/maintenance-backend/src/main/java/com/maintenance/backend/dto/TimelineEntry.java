@@ -0,0 +1,27 @@
+package com.maintenance.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a request's audit timeline: either an audit log entry or an approval collapsed
+ * to its latest state, timestamped by its decision (or creation while still pending).
+ */
+public record TimelineEntry(
+        Kind kind,
+        Long id,
+        LocalDateTime occurredAt,
+        String action,
+        UserSummary actor,
+        String details) {
+    
+    // Declared in timeline order for entries with the same timestamp.
+    public enum Kind {
+        APPROVAL, AUDIT
+    }
+    
+    // Flat form used by JPQL constructor expressions.
+    public TimelineEntry(String kind, Long id, LocalDateTime occurredAt, String action,
+                         Long actorId, String actorName, String details) {
+        this(Kind.valueOf(kind), id, occurredAt, action, UserSummary.of(actorId, actorName), details);
+    }
+}
@@ -0,0 +1,8 @@
+package com.maintenance.backend.dto;
+
+public record UserSummary(Long id, String name) {
+    
+    public static UserSummary of(Long id, String name) {
+        return id == null ? null : new UserSummary(id, name);
+    }
+}
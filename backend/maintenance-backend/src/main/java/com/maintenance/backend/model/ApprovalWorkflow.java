@@ -1,5 +1,6 @@
 package com.maintenance.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -8,11 +9,17 @@ import java.time.LocalDateTime;
 public class ApprovalWorkflow {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "approval_workflows_id")
+    @SequenceGenerator(name = "approval_workflows_id", sequenceName = "approval_workflows_seq", allocationSize = 50)
     private Long id;
     
+    @Version
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @JsonIgnoreProperties({"description", "businessJustification", "rollbackPlan", "sqlStatement", "configContent",
+            "jobDetails", "validationResult", "executionResult", "approvals", "auditLogs"})
     private MaintenanceRequest request;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -58,6 +65,14 @@ public class ApprovalWorkflow {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public MaintenanceRequest getRequest() {
         return request;
     }
@@ -0,0 +1,74 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "archived_approval_workflows")
+public class ArchivedApprovalWorkflow {
+    
+    @Id
+    private Long id;
+    
+    private Long version;
+    
+    @Column(name = "request_id")
+    private Long requestId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "approver_id")
+    private User approver;
+    
+    @Enumerated(EnumType.STRING)
+    private ApprovalWorkflow.ApprovalType type;
+    
+    @Enumerated(EnumType.STRING)
+    private ApprovalWorkflow.ApprovalStatus status;
+    
+    @Column(columnDefinition = "TEXT")
+    private String comments;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "approved_at")
+    private LocalDateTime approvedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public User getApprover() {
+        return approver;
+    }
+
+    public ApprovalWorkflow.ApprovalType getType() {
+        return type;
+    }
+
+    public ApprovalWorkflow.ApprovalStatus getStatus() {
+        return status;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getApprovedAt() {
+        return approvedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "archived_audit_logs")
+public class ArchivedAuditLog {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "request_id")
+    private Long requestId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+    
+    @Enumerated(EnumType.STRING)
+    private AuditLog.ActionType action;
+    
+    @Column(columnDefinition = "TEXT")
+    private String details;
+    
+    @Column(name = "ip_address")
+    private String ipAddress;
+    
+    @Column(name = "user_agent")
+    private String userAgent;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public AuditLog.ActionType getAction() {
+        return action;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
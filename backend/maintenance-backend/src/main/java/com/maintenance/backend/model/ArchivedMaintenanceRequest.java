@@ -0,0 +1,178 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "archived_maintenance_requests")
+public class ArchivedMaintenanceRequest {
+    
+    @Id
+    private Long id;
+    
+    private Long version;
+    
+    private String title;
+    
+    @Enumerated(EnumType.STRING)
+    private MaintenanceRequest.RequestType type;
+    
+    @Enumerated(EnumType.STRING)
+    private MaintenanceRequest.RequestStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    private MaintenanceRequest.Priority priority;
+    
+    private String application;
+    
+    @Enumerated(EnumType.STRING)
+    private MaintenanceRequest.Environment environment;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "business_justification", columnDefinition = "TEXT")
+    private String businessJustification;
+    
+    @Column(name = "rollback_plan", columnDefinition = "TEXT")
+    private String rollbackPlan;
+    
+    @Column(name = "sql_statement", columnDefinition = "TEXT")
+    private String sqlStatement;
+    
+    @Column(name = "config_content", columnDefinition = "TEXT")
+    private String configContent;
+    
+    @Column(name = "job_details", columnDefinition = "TEXT")
+    private String jobDetails;
+    
+    @Column(name = "validation_result", columnDefinition = "TEXT")
+    private String validationResult;
+    
+    @Column(name = "execution_result", columnDefinition = "TEXT")
+    private String executionResult;
+    
+    @Column(name = "affected_rows")
+    private Integer affectedRows;
+    
+    @Column(name = "execution_time")
+    private Double executionTime;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "submitter_id")
+    private User submitter;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "peer_reviewer_id")
+    private User peerReviewer;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public MaintenanceRequest.RequestType getType() {
+        return type;
+    }
+
+    public MaintenanceRequest.RequestStatus getStatus() {
+        return status;
+    }
+
+    public MaintenanceRequest.Priority getPriority() {
+        return priority;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public MaintenanceRequest.Environment getEnvironment() {
+        return environment;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getBusinessJustification() {
+        return businessJustification;
+    }
+
+    public String getRollbackPlan() {
+        return rollbackPlan;
+    }
+
+    public String getSqlStatement() {
+        return sqlStatement;
+    }
+
+    public String getConfigContent() {
+        return configContent;
+    }
+
+    public String getJobDetails() {
+        return jobDetails;
+    }
+
+    public String getValidationResult() {
+        return validationResult;
+    }
+
+    public String getExecutionResult() {
+        return executionResult;
+    }
+
+    public Integer getAffectedRows() {
+        return affectedRows;
+    }
+
+    public Double getExecutionTime() {
+        return executionTime;
+    }
+
+    public User getSubmitter() {
+        return submitter;
+    }
+
+    public User getPeerReviewer() {
+        return peerReviewer;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
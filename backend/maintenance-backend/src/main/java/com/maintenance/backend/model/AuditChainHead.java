@@ -0,0 +1,56 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "audit_chain_head")
+public class AuditChainHead {
+    
+    // One row per node: each node's chain lives in its own segment directory
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+    
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+    
+    // Hex-encoded HMAC of the record at lastSequence; null until the first record is stored.
+    @Column(name = "last_hash", length = 64)
+    private String lastHash;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public String getLastHash() {
+        return lastHash;
+    }
+
+    public void setLastHash(String lastHash) {
+        this.lastHash = lastHash;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
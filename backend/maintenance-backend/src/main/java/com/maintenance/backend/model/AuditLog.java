@@ -1,5 +1,6 @@
 package com.maintenance.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -8,11 +9,14 @@ import java.time.LocalDateTime;
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_id")
+    @SequenceGenerator(name = "audit_logs_id", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @JsonIgnoreProperties({"description", "businessJustification", "rollbackPlan", "sqlStatement", "configContent",
+            "jobDetails", "validationResult", "executionResult", "approvals", "auditLogs"})
     private MaintenanceRequest request;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,7 +48,9 @@ public class AuditLog {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     public Long getId() {
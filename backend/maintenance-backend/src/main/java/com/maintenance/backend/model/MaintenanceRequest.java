@@ -1,5 +1,6 @@
 package com.maintenance.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,9 +13,13 @@ import java.util.List;
 public class MaintenanceRequest {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_requests_id")
+    @SequenceGenerator(name = "maintenance_requests_id", sequenceName = "maintenance_requests_seq", allocationSize = 50)
     private Long id;
     
+    @Version
+    private Long version;
+    
     @NotBlank
     @Size(max = 200)
     private String title;
@@ -36,29 +41,10 @@ public class MaintenanceRequest {
     @Enumerated(EnumType.STRING)
     private Environment environment;
     
-    @Column(columnDefinition = "TEXT")
-    private String description;
-    
-    @Column(name = "business_justification", columnDefinition = "TEXT")
-    private String businessJustification;
-    
-    @Column(name = "rollback_plan", columnDefinition = "TEXT")
-    private String rollbackPlan;
-    
-    @Column(name = "sql_statement", columnDefinition = "TEXT")
-    private String sqlStatement;
-    
-    @Column(name = "config_content", columnDefinition = "TEXT")
-    private String configContent;
-    
-    @Column(name = "job_details", columnDefinition = "TEXT")
-    private String jobDetails;
-    
-    @Column(name = "validation_result", columnDefinition = "TEXT")
-    private String validationResult;
-    
-    @Column(name = "execution_result", columnDefinition = "TEXT")
-    private String executionResult;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "payload_id")
+    @JsonIgnore
+    private MaintenanceRequestPayload payload;
     
     @Column(name = "affected_rows")
     private Integer affectedRows;
@@ -84,9 +70,11 @@ public class MaintenanceRequest {
     private LocalDateTime completedAt;
     
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<ApprovalWorkflow> approvals;
     
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<AuditLog> auditLogs;
     
     public enum RequestType {
@@ -127,6 +115,14 @@ public class MaintenanceRequest {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -176,67 +172,84 @@ public class MaintenanceRequest {
     }
 
     public String getDescription() {
-        return description;
+        return payload == null ? null : payload.getDescription();
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        payload().setDescription(description);
     }
 
     public String getBusinessJustification() {
-        return businessJustification;
+        return payload == null ? null : payload.getBusinessJustification();
     }
 
     public void setBusinessJustification(String businessJustification) {
-        this.businessJustification = businessJustification;
+        payload().setBusinessJustification(businessJustification);
     }
 
     public String getRollbackPlan() {
-        return rollbackPlan;
+        return payload == null ? null : payload.getRollbackPlan();
     }
 
     public void setRollbackPlan(String rollbackPlan) {
-        this.rollbackPlan = rollbackPlan;
+        payload().setRollbackPlan(rollbackPlan);
     }
 
     public String getSqlStatement() {
-        return sqlStatement;
+        return payload == null ? null : payload.getSqlStatement();
     }
 
     public void setSqlStatement(String sqlStatement) {
-        this.sqlStatement = sqlStatement;
+        payload().setSqlStatement(sqlStatement);
     }
 
     public String getConfigContent() {
-        return configContent;
+        return payload == null ? null : payload.getConfigContent();
     }
 
     public void setConfigContent(String configContent) {
-        this.configContent = configContent;
+        payload().setConfigContent(configContent);
     }
 
     public String getJobDetails() {
-        return jobDetails;
+        return payload == null ? null : payload.getJobDetails();
     }
 
     public void setJobDetails(String jobDetails) {
-        this.jobDetails = jobDetails;
+        payload().setJobDetails(jobDetails);
     }
 
     public String getValidationResult() {
-        return validationResult;
+        return payload == null ? null : payload.getValidationResult();
     }
 
     public void setValidationResult(String validationResult) {
-        this.validationResult = validationResult;
+        payload().setValidationResult(validationResult);
     }
 
     public String getExecutionResult() {
-        return executionResult;
+        return payload == null ? null : payload.getExecutionResult();
     }
 
     public void setExecutionResult(String executionResult) {
-        this.executionResult = executionResult;
+        payload().setExecutionResult(executionResult);
+    }
+
+    public MaintenanceRequestPayload getPayload() {
+        return payload;
+    }
+
+    public void setPayload(MaintenanceRequestPayload payload) {
+        this.payload = payload;
+    }
+    
+    // Large text fields live in a separate, lazily fetched row so that status transitions
+    // only load and flush the narrow request row.
+    private MaintenanceRequestPayload payload() {
+        if (payload == null) {
+            payload = new MaintenanceRequestPayload();
+        }
+        return payload;
     }
 
     public Integer getAffectedRows() {
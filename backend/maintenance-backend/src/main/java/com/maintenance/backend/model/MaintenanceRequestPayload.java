@@ -0,0 +1,109 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "maintenance_request_payloads")
+public class MaintenanceRequestPayload {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_request_payloads_id")
+    @SequenceGenerator(name = "maintenance_request_payloads_id", sequenceName = "maintenance_request_payloads_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "business_justification", columnDefinition = "TEXT")
+    private String businessJustification;
+    
+    @Column(name = "rollback_plan", columnDefinition = "TEXT")
+    private String rollbackPlan;
+    
+    @Column(name = "sql_statement", columnDefinition = "TEXT")
+    private String sqlStatement;
+    
+    @Column(name = "config_content", columnDefinition = "TEXT")
+    private String configContent;
+    
+    @Column(name = "job_details", columnDefinition = "TEXT")
+    private String jobDetails;
+    
+    @Column(name = "validation_result", columnDefinition = "TEXT")
+    private String validationResult;
+    
+    @Column(name = "execution_result", columnDefinition = "TEXT")
+    private String executionResult;
+    
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getBusinessJustification() {
+        return businessJustification;
+    }
+
+    public void setBusinessJustification(String businessJustification) {
+        this.businessJustification = businessJustification;
+    }
+
+    public String getRollbackPlan() {
+        return rollbackPlan;
+    }
+
+    public void setRollbackPlan(String rollbackPlan) {
+        this.rollbackPlan = rollbackPlan;
+    }
+
+    public String getSqlStatement() {
+        return sqlStatement;
+    }
+
+    public void setSqlStatement(String sqlStatement) {
+        this.sqlStatement = sqlStatement;
+    }
+
+    public String getConfigContent() {
+        return configContent;
+    }
+
+    public void setConfigContent(String configContent) {
+        this.configContent = configContent;
+    }
+
+    public String getJobDetails() {
+        return jobDetails;
+    }
+
+    public void setJobDetails(String jobDetails) {
+        this.jobDetails = jobDetails;
+    }
+
+    public String getValidationResult() {
+        return validationResult;
+    }
+
+    public void setValidationResult(String validationResult) {
+        this.validationResult = validationResult;
+    }
+
+    public String getExecutionResult() {
+        return executionResult;
+    }
+
+    public void setExecutionResult(String executionResult) {
+        this.executionResult = executionResult;
+    }
+}
@@ -0,0 +1,134 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "workflow_outbox")
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EventType eventType;
+    
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+    
+    @Column(name = "approval_id")
+    private Long approvalId;
+    
+    @Column(name = "approver_id")
+    private Long approverId;
+    
+    @Column(name = "actor_id")
+    private Long actorId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 32)
+    private MaintenanceRequest.RequestStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 32)
+    private MaintenanceRequest.RequestStatus toStatus;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Cluster node whose transaction wrote the event.
+    @Column(name = "node_id")
+    private String nodeId;
+    
+    public enum EventType {
+        REQUEST_CREATED, REQUEST_UPDATED, REQUEST_SUBMITTED, APPROVAL_ASSIGNED, APPROVAL_DECIDED,
+        EXECUTION_STARTED, EXECUTION_COMPLETED, EXECUTION_FAILED, REQUEST_ARCHIVED
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getApprovalId() {
+        return approvalId;
+    }
+
+    public void setApprovalId(Long approvalId) {
+        this.approvalId = approvalId;
+    }
+
+    public Long getApproverId() {
+        return approverId;
+    }
+
+    public void setApproverId(Long approverId) {
+        this.approverId = approverId;
+    }
+
+    public Long getActorId() {
+        return actorId;
+    }
+
+    public void setActorId(Long actorId) {
+        this.actorId = actorId;
+    }
+
+    public MaintenanceRequest.RequestStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(MaintenanceRequest.RequestStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public MaintenanceRequest.RequestStatus getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(MaintenanceRequest.RequestStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_offsets")
+public class OutboxOffset {
+    
+    @EmbeddedId
+    private OutboxOffsetKey key;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public OutboxOffset() {
+    }
+    
+    public OutboxOffset(OutboxOffsetKey key, Long lastEventId) {
+        this.key = key;
+        this.lastEventId = lastEventId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public OutboxOffsetKey getKey() {
+        return key;
+    }
+
+    public void setKey(OutboxOffsetKey key) {
+        this.key = key;
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class OutboxOffsetKey implements Serializable {
+    
+    @Column(name = "node_id", length = 255)
+    private String nodeId;
+    
+    @Column(name = "subscriber", length = 100)
+    private String subscriber;
+    
+    protected OutboxOffsetKey() {
+    }
+    
+    public OutboxOffsetKey(String nodeId, String subscriber) {
+        this.nodeId = nodeId;
+        this.subscriber = subscriber;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getSubscriber() {
+        return subscriber;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxOffsetKey)) {
+            return false;
+        }
+        OutboxOffsetKey that = (OutboxOffsetKey) o;
+        return Objects.equals(nodeId, that.nodeId) && Objects.equals(subscriber, that.subscriber);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, subscriber);
+    }
+    
+    @Override
+    public String toString() {
+        return nodeId + "/" + subscriber;
+    }
+}
@@ -0,0 +1,30 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "request_counters")
+public class RequestCounter {
+    
+    @EmbeddedId
+    private RequestCounterKey key;
+    
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+
+    public RequestCounterKey getKey() {
+        return key;
+    }
+
+    public void setKey(RequestCounterKey key) {
+        this.key = key;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(long requestCount) {
+        this.requestCount = requestCount;
+    }
+}
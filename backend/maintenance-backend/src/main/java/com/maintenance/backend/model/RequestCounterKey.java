@@ -0,0 +1,89 @@
+package com.maintenance.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+@Embeddable
+public class RequestCounterKey implements Serializable {
+    
+    public static final String UNSPECIFIED_ENVIRONMENT = "UNSPECIFIED";
+    
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32)
+    private MaintenanceRequest.RequestStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 32)
+    private MaintenanceRequest.RequestType type;
+    
+    @Column(name = "environment", length = 32)
+    private String environment;
+    
+    @Column(name = "bucket_month", length = 7)
+    private String month;
+    
+    protected RequestCounterKey() {
+    }
+    
+    public RequestCounterKey(MaintenanceRequest.RequestStatus status, MaintenanceRequest.RequestType type,
+                             String environment, String month) {
+        this.status = status;
+        this.type = type;
+        this.environment = environment;
+        this.month = month;
+    }
+    
+    public static RequestCounterKey of(MaintenanceRequest request) {
+        String environment = request.getEnvironment() == null ?
+                UNSPECIFIED_ENVIRONMENT : request.getEnvironment().name();
+        return new RequestCounterKey(request.getStatus(), request.getType(), environment,
+                request.getCreatedAt().format(MONTH_FORMAT));
+    }
+    
+    public static String monthOf(java.time.YearMonth yearMonth) {
+        return yearMonth.format(MONTH_FORMAT);
+    }
+
+    public MaintenanceRequest.RequestStatus getStatus() {
+        return status;
+    }
+
+    public MaintenanceRequest.RequestType getType() {
+        return type;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RequestCounterKey)) {
+            return false;
+        }
+        RequestCounterKey that = (RequestCounterKey) o;
+        return status == that.status && type == that.type &&
+                Objects.equals(environment, that.environment) && Objects.equals(month, that.month);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, type, environment, month);
+    }
+    
+    @Override
+    public String toString() {
+        return status + "/" + type + "/" + environment + "/" + month;
+    }
+}
@@ -1,14 +1,20 @@
 package com.maintenance.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.maintenance.backend.config.CacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USERS_REGION)
 public class User {
     
     @Id
@@ -42,9 +48,11 @@ public class User {
     private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "submitter", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<MaintenanceRequest> submittedRequests;
     
     @OneToMany(mappedBy = "approver", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<ApprovalWorkflow> approvals;
     
     public enum Role {
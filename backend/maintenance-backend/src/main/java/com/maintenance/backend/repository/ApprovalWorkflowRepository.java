@@ -1,18 +1,53 @@
 package com.maintenance.backend.repository;
 
+import com.maintenance.backend.dto.PendingApprovalSummary;
+import com.maintenance.backend.dto.TimelineEntry;
 import com.maintenance.backend.model.ApprovalWorkflow;
 import com.maintenance.backend.model.MaintenanceRequest;
 import com.maintenance.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ApprovalWorkflowRepository extends JpaRepository<ApprovalWorkflow, Long> {
+    @EntityGraph(attributePaths = {"request", "approver"})
     List<ApprovalWorkflow> findByRequest(MaintenanceRequest request);
+    
+    @EntityGraph(attributePaths = {"request", "approver"})
+    Optional<ApprovalWorkflow> findWithRequestById(Long id);
+    
+    @EntityGraph(attributePaths = {"request", "approver"})
+    List<ApprovalWorkflow> findWithRequestByIdIn(Collection<Long> ids);
+
     List<ApprovalWorkflow> findByApprover(User approver);
     List<ApprovalWorkflow> findByStatus(ApprovalWorkflow.ApprovalStatus status);
     Optional<ApprovalWorkflow> findByRequestAndType(MaintenanceRequest request, ApprovalWorkflow.ApprovalType type);
     List<ApprovalWorkflow> findByApproverAndStatus(User approver, ApprovalWorkflow.ApprovalStatus status);
+    
+    @Query("SELECT new com.maintenance.backend.dto.PendingApprovalSummary(a.id, a.type, a.createdAt, " +
+           "r.id, r.title, r.type, r.priority, r.application, r.environment, s.id, s.name) " +
+           "FROM ApprovalWorkflow a JOIN a.request r LEFT JOIN r.submitter s " +
+           "WHERE a.approver.id = :approverId AND a.status = :status " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<PendingApprovalSummary> findSummariesByApproverAndStatus(@Param("approverId") Long approverId,
+                                                                  @Param("status") ApprovalWorkflow.ApprovalStatus status);
+    
+    // Each approval appears once, at its decision time or its creation time while still pending.
+    @Query("SELECT new com.maintenance.backend.dto.TimelineEntry('APPROVAL', a.id, " +
+           "COALESCE(a.approvedAt, a.createdAt), CONCAT(CAST(a.type AS String), '_', CAST(a.status AS String)), " +
+           "u.id, u.name, a.comments) " +
+           "FROM ApprovalWorkflow a LEFT JOIN a.approver u WHERE a.request.id = :requestId " +
+           "AND (COALESCE(a.approvedAt, a.createdAt) < :at " +
+           "OR (COALESCE(a.approvedAt, a.createdAt) = :at AND a.id < :id)) " +
+           "ORDER BY COALESCE(a.approvedAt, a.createdAt) DESC, a.id DESC")
+    List<TimelineEntry> findTimelinePage(@Param("requestId") Long requestId, @Param("at") LocalDateTime at,
+                                         @Param("id") Long id, Pageable pageable);
 }
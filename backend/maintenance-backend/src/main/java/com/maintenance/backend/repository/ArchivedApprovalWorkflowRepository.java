@@ -0,0 +1,25 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.TimelineEntry;
+import com.maintenance.backend.model.ArchivedApprovalWorkflow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedApprovalWorkflowRepository extends JpaRepository<ArchivedApprovalWorkflow, Long> {
+    
+    @Query("SELECT new com.maintenance.backend.dto.TimelineEntry('APPROVAL', a.id, " +
+           "COALESCE(a.approvedAt, a.createdAt), CONCAT(CAST(a.type AS String), '_', CAST(a.status AS String)), " +
+           "u.id, u.name, a.comments) " +
+           "FROM ArchivedApprovalWorkflow a LEFT JOIN a.approver u WHERE a.requestId = :requestId " +
+           "AND (COALESCE(a.approvedAt, a.createdAt) < :at " +
+           "OR (COALESCE(a.approvedAt, a.createdAt) = :at AND a.id < :id)) " +
+           "ORDER BY COALESCE(a.approvedAt, a.createdAt) DESC, a.id DESC")
+    List<TimelineEntry> findTimelinePage(@Param("requestId") Long requestId, @Param("at") LocalDateTime at,
+                                         @Param("id") Long id, Pageable pageable);
+}
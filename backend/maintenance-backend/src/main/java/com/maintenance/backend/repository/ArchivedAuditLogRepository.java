@@ -0,0 +1,34 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.TimelineEntry;
+import com.maintenance.backend.model.ArchivedAuditLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedAuditLogRepository extends JpaRepository<ArchivedAuditLog, Long> {
+    
+    @Query("SELECT new com.maintenance.backend.dto.TimelineEntry('AUDIT', a.id, a.createdAt, " +
+           "CAST(a.action AS String), u.id, u.name, a.details) " +
+           "FROM ArchivedAuditLog a LEFT JOIN a.user u WHERE a.requestId = :requestId " +
+           "AND (a.createdAt < :at OR (a.createdAt = :at AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<TimelineEntry> findTimelinePage(@Param("requestId") Long requestId, @Param("at") LocalDateTime at,
+                                         @Param("id") Long id, Pageable pageable);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedAuditLog a LEFT JOIN FETCH a.user ORDER BY a.id")
+    Stream<ArchivedAuditLog> streamAllForExport();
+}
@@ -0,0 +1,105 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads archived requests and moves closed requests from the hot tables into the archive.
+ * The native statements name the tables they touch so Hibernate only invalidates those
+ * second-level cache regions instead of the whole cache.
+ */
+@Repository
+public interface ArchivedMaintenanceRequestRepository extends JpaRepository<ArchivedMaintenanceRequest, Long> {
+    
+    @EntityGraph(attributePaths = {"submitter", "peerReviewer"})
+    Optional<ArchivedMaintenanceRequest> findDetailedById(Long id);
+    
+    List<ArchivedMaintenanceRequest> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedMaintenanceRequest a LEFT JOIN FETCH a.submitter " +
+           "LEFT JOIN FETCH a.peerReviewer ORDER BY a.id")
+    Stream<ArchivedMaintenanceRequest> streamAllForExport();
+    
+    @Query("SELECT a.status, a.type, a.environment, YEAR(a.createdAt), MONTH(a.createdAt), COUNT(a) " +
+           "FROM ArchivedMaintenanceRequest a " +
+           "GROUP BY a.status, a.type, a.environment, YEAR(a.createdAt), MONTH(a.createdAt)")
+    List<Object[]> countRequestsByKey();
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_maintenance_requests"))
+    @Query(value = "INSERT INTO archived_maintenance_requests (id, version, title, type, status, priority, application, " +
+                   "environment, description, business_justification, rollback_plan, sql_statement, config_content, " +
+                   "job_details, validation_result, execution_result, affected_rows, execution_time, submitter_id, " +
+                   "peer_reviewer_id, created_at, updated_at, completed_at, archived_at) " +
+                   "SELECT r.id, r.version, r.title, r.type, r.status, r.priority, r.application, r.environment, " +
+                   "p.description, p.business_justification, p.rollback_plan, p.sql_statement, p.config_content, " +
+                   "p.job_details, p.validation_result, p.execution_result, r.affected_rows, r.execution_time, " +
+                   "r.submitter_id, r.peer_reviewer_id, r.created_at, r.updated_at, r.completed_at, LOCALTIMESTAMP " +
+                   "FROM maintenance_requests r LEFT JOIN maintenance_request_payloads p ON p.id = r.payload_id " +
+                   "WHERE r.id IN (:ids)",
+           nativeQuery = true)
+    int copyRequests(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_approval_workflows"))
+    @Query(value = "INSERT INTO archived_approval_workflows (id, version, request_id, approver_id, type, status, " +
+                   "comments, created_at, approved_at) " +
+                   "SELECT id, version, request_id, approver_id, type, status, comments, created_at, approved_at " +
+                   "FROM approval_workflows WHERE request_id IN (:ids)",
+           nativeQuery = true)
+    int copyApprovals(@Param("ids") Collection<Long> requestIds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_audit_logs"))
+    @Query(value = "INSERT INTO archived_audit_logs (id, request_id, user_id, action, details, ip_address, " +
+                   "user_agent, created_at) " +
+                   "SELECT id, request_id, user_id, action, details, ip_address, user_agent, created_at " +
+                   "FROM audit_logs WHERE request_id IN (:ids)",
+           nativeQuery = true)
+    int copyAuditLogs(@Param("ids") Collection<Long> requestIds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "audit_logs"))
+    @Query(value = "DELETE FROM audit_logs WHERE request_id IN (:ids)", nativeQuery = true)
+    int deleteHotAuditLogs(@Param("ids") Collection<Long> requestIds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "approval_workflows"))
+    @Query(value = "DELETE FROM approval_workflows WHERE request_id IN (:ids)", nativeQuery = true)
+    int deleteHotApprovals(@Param("ids") Collection<Long> requestIds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "execution_claims"))
+    @Query(value = "DELETE FROM execution_claims WHERE request_id IN (:ids)", nativeQuery = true)
+    int deleteHotExecutionClaims(@Param("ids") Collection<Long> requestIds);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "maintenance_requests"))
+    @Query(value = "DELETE FROM maintenance_requests WHERE id IN (:ids) AND status IN (:statuses) " +
+                   "AND updated_at < :cutoff", nativeQuery = true)
+    int deleteHotRequests(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<String> statuses,
+                          @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "maintenance_request_payloads"))
+    @Query(value = "DELETE FROM maintenance_request_payloads WHERE id IN (:ids)", nativeQuery = true)
+    int deleteHotPayloads(@Param("ids") Collection<Long> payloadIds);
+}
@@ -0,0 +1,20 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.AuditChainHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface AuditChainHeadRepository extends JpaRepository<AuditChainHead, String> {
+    
+    // Only ever moves forward, so a replayed batch cannot rewind the head.
+    @Modifying
+    @Query("UPDATE AuditChainHead h SET h.lastSequence = :sequence, h.lastHash = :hash, h.updatedAt = :updatedAt " +
+           "WHERE h.nodeId = :nodeId AND h.lastSequence < :sequence")
+    int advance(@Param("nodeId") String nodeId, @Param("sequence") long sequence, @Param("hash") String hash,
+                @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -1,11 +1,20 @@
 package com.maintenance.backend.repository;
 
+import com.maintenance.backend.dto.TimelineEntry;
 import com.maintenance.backend.model.AuditLog;
 import com.maintenance.backend.model.MaintenanceRequest;
 import com.maintenance.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
@@ -13,4 +22,19 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByUser(User user);
     List<AuditLog> findByAction(AuditLog.ActionType action);
     List<AuditLog> findByRequestOrderByCreatedAtDesc(MaintenanceRequest request);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.user ORDER BY a.id")
+    Stream<AuditLog> streamAllForExport();
+    
+    @Query("SELECT new com.maintenance.backend.dto.TimelineEntry('AUDIT', a.id, a.createdAt, " +
+           "CAST(a.action AS String), u.id, u.name, a.details) " +
+           "FROM AuditLog a LEFT JOIN a.user u WHERE a.request.id = :requestId AND a.createdAt <= :at " +
+           "AND (a.createdAt < :at OR (a.createdAt = :at AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<TimelineEntry> findTimelinePage(@Param("requestId") Long requestId, @Param("at") LocalDateTime at,
+                                         @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.ExecutionClaim;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+
+// Lease timestamps use the database clock so that nodes with skewed clocks agree on expiry.
+@Repository
+public interface ExecutionClaimRepository extends JpaRepository<ExecutionClaim, Long> {
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "execution_claims"))
+    @Query(value = "INSERT INTO execution_claims (request_id, owner_node, claimed_at, heartbeat_at, lease_expires_at) " +
+            "VALUES (:requestId, :owner, LOCALTIMESTAMP, LOCALTIMESTAMP, DATEADD(MILLISECOND, :leaseMillis, LOCALTIMESTAMP))",
+            nativeQuery = true)
+    int insertClaim(@Param("requestId") Long requestId, @Param("owner") String owner,
+                    @Param("leaseMillis") long leaseMillis);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "execution_claims"))
+    @Query(value = "UPDATE execution_claims SET owner_node = :owner, claimed_at = LOCALTIMESTAMP, heartbeat_at = LOCALTIMESTAMP, " +
+            "lease_expires_at = DATEADD(MILLISECOND, :leaseMillis, LOCALTIMESTAMP) " +
+            "WHERE request_id = :requestId AND lease_expires_at < LOCALTIMESTAMP",
+            nativeQuery = true)
+    int reclaimExpired(@Param("requestId") Long requestId, @Param("owner") String owner,
+                       @Param("leaseMillis") long leaseMillis);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "execution_claims"))
+    @Query(value = "UPDATE execution_claims SET heartbeat_at = LOCALTIMESTAMP, " +
+            "lease_expires_at = DATEADD(MILLISECOND, :leaseMillis, LOCALTIMESTAMP) " +
+            "WHERE request_id IN (:requestIds) AND owner_node = :owner",
+            nativeQuery = true)
+    int renewClaims(@Param("requestIds") Collection<Long> requestIds, @Param("owner") String owner,
+                    @Param("leaseMillis") long leaseMillis);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "execution_claims"))
+    @Query(value = "DELETE FROM execution_claims WHERE request_id = :requestId AND owner_node = :owner", nativeQuery = true)
+    int releaseClaim(@Param("requestId") Long requestId, @Param("owner") String owner);
+}
@@ -0,0 +1,13 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.model.MaintenanceRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+
+public interface MaintenanceRequestFilterRepository {
+    
+    List<MaintenanceRequestSummary> findSummaries(Specification<MaintenanceRequest> specification,
+                                                  String sortAttribute, Sort.Direction direction, int limit);
+}
@@ -0,0 +1,48 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+
+/**
+ * Runs a request Specification as a single SELECT of the summary columns, so filtered lists
+ * never load entities or the payload row.
+ */
+class MaintenanceRequestFilterRepositoryImpl implements MaintenanceRequestFilterRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<MaintenanceRequestSummary> findSummaries(Specification<MaintenanceRequest> specification,
+                                                         String sortAttribute, Sort.Direction direction, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MaintenanceRequestSummary> query = cb.createQuery(MaintenanceRequestSummary.class);
+        Root<MaintenanceRequest> r = query.from(MaintenanceRequest.class);
+        Join<MaintenanceRequest, User> s = r.join("submitter", JoinType.LEFT);
+        Join<MaintenanceRequest, User> p = r.join("peerReviewer", JoinType.LEFT);
+        
+        query.select(cb.construct(MaintenanceRequestSummary.class,
+                r.get("id"), r.get("title"), r.get("type"), r.get("status"), r.get("priority"),
+                r.get("application"), r.get("environment"), s.get("id"), s.get("name"), p.get("id"), p.get("name"),
+                r.get("createdAt"), r.get("updatedAt"), r.get("completedAt")));
+        query.where(specification.toPredicate(r, query, cb));
+        
+        Order bySort = direction.isAscending() ? cb.asc(r.get(sortAttribute)) : cb.desc(r.get(sortAttribute));
+        Order byId = direction.isAscending() ? cb.asc(r.get("id")) : cb.desc(r.get("id"));
+        query.orderBy(bySort, byId);
+        
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,24 +1,96 @@
 package com.maintenance.backend.repository;
 
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
 import com.maintenance.backend.model.MaintenanceRequest;
 import com.maintenance.backend.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long> {
+public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, Long>,
+        MaintenanceRequestFilterRepository {
     List<MaintenanceRequest> findBySubmitter(User submitter);
     List<MaintenanceRequest> findByStatus(MaintenanceRequest.RequestStatus status);
     List<MaintenanceRequest> findByType(MaintenanceRequest.RequestType type);
     
-    @Query("SELECT r FROM MaintenanceRequest r WHERE r.status = 'PENDING_APPROVAL'")
-    List<MaintenanceRequest> findPendingApprovalRequests();
+    @EntityGraph(attributePaths = {"submitter", "peerReviewer", "payload"})
+    Optional<MaintenanceRequest> findDetailedById(Long id);
+    
+    String SUMMARY_SELECT = "SELECT new com.maintenance.backend.dto.MaintenanceRequestSummary(" +
+            "r.id, r.title, r.type, r.status, r.priority, r.application, r.environment, " +
+            "s.id, s.name, p.id, p.name, r.createdAt, r.updatedAt, r.completedAt) " +
+            "FROM MaintenanceRequest r LEFT JOIN r.submitter s LEFT JOIN r.peerReviewer p ";
+    
+    @Query(SUMMARY_SELECT + "WHERE r.status = 'PENDING_APPROVAL' ORDER BY r.createdAt DESC, r.id DESC")
+    List<MaintenanceRequestSummary> findPendingApprovalRequests();
+    
+    // The redundant createdAt bound gives the planner a range on the (..., created_at) indexes; it
+    // does not recognise one in the OR of the keyset condition.
+    @Query(SUMMARY_SELECT +
+           "WHERE r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<MaintenanceRequestSummary> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                             Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE r.status = :status AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<MaintenanceRequestSummary> findPageByStatus(@Param("status") MaintenanceRequest.RequestStatus status,
+                                                     @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                     Pageable pageable);
+    
+    // Compared by id: "r.submitter = :submitter" would compare the joined users row's id, which
+    // keeps the planner off the (submitter_id, created_at) index.
+    @Query(SUMMARY_SELECT + "WHERE r.submitter.id = :submitterId AND r.createdAt <= :createdAt " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<MaintenanceRequestSummary> findPageBySubmitter(@Param("submitterId") Long submitterId,
+                                                        @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                        Pageable pageable);
     
     @Query("SELECT COUNT(r) FROM MaintenanceRequest r WHERE r.status = ?1")
     Long countByStatus(MaintenanceRequest.RequestStatus status);
     
-    @Query("SELECT COUNT(r) FROM MaintenanceRequest r WHERE r.type = ?1 AND MONTH(r.createdAt) = MONTH(CURRENT_DATE) AND YEAR(r.createdAt) = YEAR(CURRENT_DATE)")
-    Long countByTypeThisMonth(MaintenanceRequest.RequestType type);
+    @EntityGraph(attributePaths = {"payload"})
+    @Query("SELECT r FROM MaintenanceRequest r WHERE r.id > :afterId ORDER BY r.id")
+    List<MaintenanceRequest> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"payload"})
+    @Query("SELECT r FROM MaintenanceRequest r WHERE r.id IN :ids")
+    List<MaintenanceRequest> findIndexBatchByIds(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM MaintenanceRequest r LEFT JOIN FETCH r.payload " +
+           "LEFT JOIN FETCH r.submitter LEFT JOIN FETCH r.peerReviewer ORDER BY r.id")
+    Stream<MaintenanceRequest> streamAllForExport();
+    
+    @Query("SELECT r.id, r.payload.id FROM MaintenanceRequest r " +
+           "WHERE r.status IN :statuses AND r.updatedAt < :cutoff ORDER BY r.updatedAt, r.id")
+    List<Object[]> findArchivableIds(@Param("statuses") Collection<MaintenanceRequest.RequestStatus> statuses,
+                                     @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Locks the candidates and re-checks them, so a request changed since it was selected is left out
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM MaintenanceRequest r " +
+           "WHERE r.id IN :ids AND r.status IN :statuses AND r.updatedAt < :cutoff")
+    List<Long> lockArchivable(@Param("ids") Collection<Long> ids,
+                              @Param("statuses") Collection<MaintenanceRequest.RequestStatus> statuses,
+                              @Param("cutoff") LocalDateTime cutoff);
 }
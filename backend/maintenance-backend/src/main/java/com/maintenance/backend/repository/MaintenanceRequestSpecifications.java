@@ -0,0 +1,79 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.PageCursor;
+import com.maintenance.backend.dto.RequestFilter;
+import com.maintenance.backend.model.MaintenanceRequest;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class MaintenanceRequestSpecifications {
+    
+    private MaintenanceRequestSpecifications() {
+    }
+    
+    public static Specification<MaintenanceRequest> matching(RequestFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addIn(predicates, root.get("status"), filter.getStatus());
+            addIn(predicates, root.get("type"), filter.getType());
+            addIn(predicates, root.get("priority"), filter.getPriority());
+            addIn(predicates, root.get("environment"), filter.getEnvironment());
+            if (filter.getApplication() != null && !filter.getApplication().isBlank()) {
+                predicates.add(cb.equal(root.get("application"), filter.getApplication()));
+            }
+            if (filter.getSubmitterId() != null) {
+                predicates.add(cb.equal(root.get("submitter").get("id"), filter.getSubmitterId()));
+            }
+            if (filter.getPeerReviewerId() != null) {
+                predicates.add(cb.equal(root.get("peerReviewer").get("id"), filter.getPeerReviewerId()));
+            }
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(createdAt, filter.getCreatedTo()));
+            }
+            Path<LocalDateTime> completedAt = root.get("completedAt");
+            if (filter.getCompletedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(completedAt, filter.getCompletedFrom()));
+            }
+            if (filter.getCompletedTo() != null) {
+                predicates.add(cb.lessThan(completedAt, filter.getCompletedTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    // Rows strictly after the cursor in (sortAttribute, id) order. Rows with no value for the
+    // sort column have no position in that order and are left out.
+    public static Specification<MaintenanceRequest> after(String sortAttribute, Sort.Direction direction,
+                                                          PageCursor cursor) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> sortPath = root.get(sortAttribute);
+            Predicate present = cb.isNotNull(sortPath);
+            if (cursor == null) {
+                return present;
+            }
+            Path<Long> id = root.get("id");
+            Predicate beyond = direction.isAscending()
+                    ? cb.or(cb.greaterThan(sortPath, cursor.getCreatedAt()),
+                            cb.and(cb.equal(sortPath, cursor.getCreatedAt()), cb.greaterThan(id, cursor.getId())))
+                    : cb.or(cb.lessThan(sortPath, cursor.getCreatedAt()),
+                            cb.and(cb.equal(sortPath, cursor.getCreatedAt()), cb.lessThan(id, cursor.getId())));
+            return cb.and(present, beyond);
+        };
+    }
+    
+    private static <T> void addIn(List<Predicate> predicates, Path<T> path, Collection<T> values) {
+        if (values != null && !values.isEmpty()) {
+            predicates.add(path.in(values));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findLastId();
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :upToId AND e.createdAt < :cutoff")
+    int deleteDeliveredBefore(@Param("upToId") long upToId, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,25 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.OutboxOffset;
+import com.maintenance.backend.model.OutboxOffsetKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, OutboxOffsetKey> {
+    
+    @Modifying
+    @Query("UPDATE OutboxOffset o SET o.updatedAt = :now WHERE o.key.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxOffset o WHERE o.updatedAt < :cutoff")
+    int deleteNotUpdatedSince(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MIN(o.lastEventId) FROM OutboxOffset o")
+    Long findMinLastEventId();
+}
@@ -0,0 +1,46 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.RequestCounter;
+import com.maintenance.backend.model.RequestCounterKey;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface RequestCounterRepository extends JpaRepository<RequestCounter, RequestCounterKey> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM RequestCounter c")
+    List<RequestCounter> findAllForUpdate();
+    
+    @Modifying
+    @Query("UPDATE RequestCounter c SET c.requestCount = c.requestCount + :delta " +
+           "WHERE c.key.status = :status AND c.key.type = :type " +
+           "AND c.key.environment = :environment AND c.key.month = :month")
+    int increment(@Param("status") MaintenanceRequest.RequestStatus status,
+                  @Param("type") MaintenanceRequest.RequestType type,
+                  @Param("environment") String environment, @Param("month") String month,
+                  @Param("delta") long delta);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "request_counters"))
+    @Query(value = "INSERT INTO request_counters (status, type, environment, bucket_month, request_count) " +
+                   "VALUES (:status, :type, :environment, :month, 0)",
+           nativeQuery = true)
+    int insertEmpty(@Param("status") String status, @Param("type") String type,
+                    @Param("environment") String environment, @Param("month") String month);
+    
+    @Query("SELECT r.status, r.type, r.environment, YEAR(r.createdAt), MONTH(r.createdAt), COUNT(r) " +
+           "FROM MaintenanceRequest r " +
+           "GROUP BY r.status, r.type, r.environment, YEAR(r.createdAt), MONTH(r.createdAt)")
+    List<Object[]> countRequestsByKey();
+}
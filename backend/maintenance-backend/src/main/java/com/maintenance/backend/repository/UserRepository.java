@@ -1,15 +1,42 @@
 package com.maintenance.backend.repository;
 
+import com.maintenance.backend.config.CacheConfig;
 import com.maintenance.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.USER_QUERIES_REGION)
+    })
     List<User> findByRole(User.Role role);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.USER_QUERIES_REGION)
+    })
+    List<User> findByRoleInOrderByRoleAscIdAsc(Collection<User.Role> roles);
+    
     List<User> findByStatus(User.UserStatus status);
     boolean existsByEmail(String email);
+    long countByStatus(User.UserStatus status);
+    
+    @Query("SELECT u FROM User u " +
+           "WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,90 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.AnalyticsSnapshot;
+import com.maintenance.backend.dto.RequestStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the admin dashboard figures from a snapshot that is recomputed at most once
+ * per TTL. When the snapshot is stale, the first caller recomputes it and any
+ * concurrent callers wait for that same computation instead of starting their own.
+ */
+@Service
+public class AnalyticsService {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private MaintenanceRequestService requestService;
+    
+    @Value("${maintenance.analytics.snapshot-ttl-ms:30000}")
+    private long snapshotTtlMs;
+    
+    private volatile AnalyticsSnapshot snapshot;
+    
+    private final AtomicReference<CompletableFuture<AnalyticsSnapshot>> refresh = new AtomicReference<>();
+    
+    public AnalyticsSnapshot getSnapshot() {
+        AnalyticsSnapshot current = snapshot;
+        if (current != null && !current.isOlderThan(snapshotTtlMs)) {
+            return current;
+        }
+        
+        CompletableFuture<AnalyticsSnapshot> ours = new CompletableFuture<>();
+        CompletableFuture<AnalyticsSnapshot> inFlight = refresh.compareAndExchange(null, ours);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        
+        try {
+            current = snapshot;
+            if (current == null || current.isOlderThan(snapshotTtlMs)) {
+                current = compute();
+                snapshot = current;
+            }
+            ours.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            refresh.set(null);
+        }
+    }
+    
+    private AnalyticsSnapshot compute() {
+        RequestStats stats = requestService.getRequestStats();
+        Map<String, Long> requestsByType = new HashMap<>();
+        requestsByType.put("sqlFixes", stats.getSqlFixesThisMonth());
+        requestsByType.put("configUpdates", stats.getConfigUpdatesThisMonth());
+        requestsByType.put("jobControls", stats.getJobControlsThisMonth());
+        requestsByType.put("logManagement", stats.getLogManagementThisMonth());
+        requestsByType.put("patchDeployment", stats.getPatchDeploymentThisMonth());
+        
+        return new AnalyticsSnapshot(
+                userService.getUserCount(),
+                userService.getActiveUserCount(),
+                requestService.getTotalRequestCount(),
+                requestService.getPendingApprovalCount(),
+                requestsByType);
+    }
+    
+    private static AnalyticsSnapshot await(CompletableFuture<AnalyticsSnapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.PageCursor;
+import com.maintenance.backend.dto.PendingApprovalSummary;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.repository.ApprovalWorkflowRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pending approvals per approver, held in memory so polling the approvals screen does not query
+ * the database while nothing has changed. An inbox is loaded from the primary with one
+ * projection query on its first read. Assignments and decisions made on this node patch it when
+ * their transaction commits; those made on other nodes, and any other committed transition of a
+ * request, reach it through the outbox and drop the affected inboxes, so they reload on the next
+ * read. Every snapshot carries a new version, exposed as its ETag.
+ */
+@Service
+public class ApprovalInboxService implements OutboxSubscriber {
+    
+    private static final Comparator<PendingApprovalSummary> INBOX_ORDER = Comparator
+            .comparing(PendingApprovalSummary::createdAt)
+            .thenComparing(PendingApprovalSummary::id)
+            .reversed();
+    
+    private static final Set<OutboxEvent.EventType> APPLIED_AT_COMMIT = EnumSet.of(
+            OutboxEvent.EventType.APPROVAL_ASSIGNED,
+            OutboxEvent.EventType.APPROVAL_DECIDED);
+    
+    @Autowired
+    private ApprovalWorkflowRepository approvalRepository;
+    
+    @Autowired
+    private KeysetPagination pagination;
+    
+    @Autowired
+    private ExecutionLeaseService leaseService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private final ConcurrentHashMap<Long, Inbox> inboxes = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    
+    // Bumped before every change, so a load that overlapped one is served but not cached.
+    private final AtomicLong changes = new AtomicLong();
+    
+    // Keeps versions issued before a restart from matching ETags issued after it.
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public Inbox getInbox(Long approverId) {
+        Inbox cached = inboxes.get(approverId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = changes.get();
+        // A read-write transaction keeps the load on the primary, so a lagging replica is never cached.
+        Inbox loaded = newInbox(approverId, transactionTemplate.execute(tx ->
+                approvalRepository.findSummariesByApproverAndStatus(approverId, ApprovalWorkflow.ApprovalStatus.PENDING)));
+        Inbox current = inboxes.compute(approverId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return changes.get() == seen ? loaded : null;
+        });
+        return current == null ? loaded : current;
+    }
+    
+    public CursorPage<PendingApprovalSummary> getPage(Inbox inbox, String cursor, Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<PendingApprovalSummary> items = inbox.items();
+        int from = Collections.binarySearch(items, positionKey(position), INBOX_ORDER);
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<PendingApprovalSummary> rows = items.subList(from, Math.min(items.size(), from + size + 1));
+        return pagination.toPage(rows, size, PendingApprovalSummary::createdAt, PendingApprovalSummary::id);
+    }
+    
+    // Called inside the assigning transaction; the summary is taken now, while the request is loaded.
+    public void approvalAssigned(ApprovalWorkflow approval) {
+        PendingApprovalSummary summary = PendingApprovalSummary.of(approval);
+        Long approverId = approval.getApprover().getId();
+        afterCommit(() -> update(approverId, items -> withItem(items, summary)));
+    }
+    
+    public void approvalDecided(ApprovalWorkflow approval) {
+        Long approvalId = approval.getId();
+        Long approverId = approval.getApprover().getId();
+        afterCommit(() -> update(approverId, items -> withoutItem(items, approvalId)));
+    }
+    
+    @Override
+    public String getSubscriberName() {
+        return "approval-inbox";
+    }
+    
+    // Edits and archival change what an inbox shows about a request without touching its approvals.
+    // Approval events are already applied at commit on the node that wrote them, and only there.
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        Set<Long> requestIds = new HashSet<>();
+        Set<Long> approverIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (!APPLIED_AT_COMMIT.contains(event.getEventType())) {
+                requestIds.add(event.getRequestId());
+            } else if (!leaseService.getNodeId().equals(event.getNodeId()) && event.getApproverId() != null) {
+                approverIds.add(event.getApproverId());
+            }
+        }
+        if (requestIds.isEmpty() && approverIds.isEmpty()) {
+            return;
+        }
+        changes.incrementAndGet();
+        inboxes.values().removeIf(inbox -> approverIds.contains(inbox.approverId())
+                || !Collections.disjoint(inbox.requestIds(), requestIds));
+    }
+    
+    @Override
+    public void resync() {
+        changes.incrementAndGet();
+        inboxes.clear();
+    }
+    
+    private void update(Long approverId, UnaryOperator<List<PendingApprovalSummary>> change) {
+        changes.incrementAndGet();
+        inboxes.computeIfPresent(approverId, (id, inbox) -> {
+            List<PendingApprovalSummary> items = change.apply(inbox.items());
+            return items == inbox.items() ? inbox : newInbox(id, items);
+        });
+    }
+    
+    private static List<PendingApprovalSummary> withItem(List<PendingApprovalSummary> items,
+                                                         PendingApprovalSummary summary) {
+        int index = Collections.binarySearch(items, summary, INBOX_ORDER);
+        if (index >= 0) {
+            return items;
+        }
+        List<PendingApprovalSummary> updated = new ArrayList<>(items.size() + 1);
+        updated.addAll(items);
+        updated.add(-index - 1, summary);
+        return updated;
+    }
+    
+    private static List<PendingApprovalSummary> withoutItem(List<PendingApprovalSummary> items, Long approvalId) {
+        List<PendingApprovalSummary> updated = new ArrayList<>(items.size());
+        for (PendingApprovalSummary item : items) {
+            if (!item.id().equals(approvalId)) {
+                updated.add(item);
+            }
+        }
+        return updated.size() == items.size() ? items : updated;
+    }
+    
+    private Inbox newInbox(Long approverId, List<PendingApprovalSummary> items) {
+        Set<Long> requestIds = new HashSet<>();
+        for (PendingApprovalSummary item : items) {
+            requestIds.add(item.requestId());
+        }
+        String etag = "\"" + epoch + "-" + approverId + "-" + versions.incrementAndGet() + "\"";
+        return new Inbox(approverId, etag, List.copyOf(items), Set.copyOf(requestIds));
+    }
+    
+    private static PendingApprovalSummary positionKey(PageCursor position) {
+        return new PendingApprovalSummary(position.getId(), null, position.getCreatedAt(),
+                null, null, null, null, null, null, null);
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    public record Inbox(Long approverId, String etag, List<PendingApprovalSummary> items, Set<Long> requestIds) {
+    }
+}
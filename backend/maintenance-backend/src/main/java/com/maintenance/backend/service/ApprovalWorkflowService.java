@@ -1,23 +1,39 @@
 package com.maintenance.backend.service;
 
+import com.maintenance.backend.dto.BulkApprovalItem;
+import com.maintenance.backend.dto.BulkApprovalResponse;
+import com.maintenance.backend.dto.BulkApprovalResult;
 import com.maintenance.backend.model.ApprovalWorkflow;
 import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.RequestCounterKey;
 import com.maintenance.backend.model.User;
 import com.maintenance.backend.model.AuditLog;
 import com.maintenance.backend.repository.ApprovalWorkflowRepository;
 import com.maintenance.backend.repository.MaintenanceRequestRepository;
-import com.maintenance.backend.repository.AuditLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ApprovalWorkflowService {
     
+    private static final Set<ApprovalWorkflow.ApprovalStatus> DECISIONS = EnumSet.of(
+            ApprovalWorkflow.ApprovalStatus.APPROVED,
+            ApprovalWorkflow.ApprovalStatus.REJECTED,
+            ApprovalWorkflow.ApprovalStatus.MORE_INFO_REQUIRED);
+    
     @Autowired
     private ApprovalWorkflowRepository approvalRepository;
     
@@ -25,12 +41,21 @@ public class ApprovalWorkflowService {
     private MaintenanceRequestRepository requestRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
     
-    public List<ApprovalWorkflow> getPendingApprovals(User approver) {
-        return approvalRepository.findByApproverAndStatus(approver, ApprovalWorkflow.ApprovalStatus.PENDING);
-    }
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ApprovalInboxService inboxService;
+    
+    @Autowired
+    private RequestCounterService counterService;
+    
+    @Value("${maintenance.approvals.bulk-max-items:200}")
+    private int bulkMaxItems;
     
+    @Transactional(readOnly = true)
     public List<ApprovalWorkflow> getApprovalsByRequest(MaintenanceRequest request) {
         return approvalRepository.findByRequest(request);
     }
@@ -44,10 +69,14 @@ public class ApprovalWorkflowService {
         
         ApprovalWorkflow saved = approvalRepository.save(approval);
         
+        RequestCounterKey counterKey = RequestCounterKey.of(request);
         request.setStatus(MaintenanceRequest.RequestStatus.PEER_REVIEW);
         requestRepository.save(request);
+        counterService.recordChange(counterKey, request);
+        outboxService.publish(OutboxEvent.EventType.APPROVAL_ASSIGNED, saved, counterKey.getStatus(), null);
+        inboxService.approvalAssigned(saved);
         
-        logAudit(request, peerReviewer, AuditLog.ActionType.PEER_REVIEW_ASSIGNED, 
+        auditService.record(request, peerReviewer, AuditLog.ActionType.PEER_REVIEW_ASSIGNED, 
                 "Peer review assigned to: " + peerReviewer.getName());
         
         return saved;
@@ -62,10 +91,14 @@ public class ApprovalWorkflowService {
         
         ApprovalWorkflow saved = approvalRepository.save(approval);
         
+        RequestCounterKey counterKey = RequestCounterKey.of(request);
         request.setStatus(MaintenanceRequest.RequestStatus.PENDING_APPROVAL);
         requestRepository.save(request);
+        counterService.recordChange(counterKey, request);
+        outboxService.publish(OutboxEvent.EventType.APPROVAL_ASSIGNED, saved, counterKey.getStatus(), null);
+        inboxService.approvalAssigned(saved);
         
-        logAudit(request, manager, AuditLog.ActionType.APPROVAL_REQUESTED, 
+        auditService.record(request, manager, AuditLog.ActionType.APPROVAL_REQUESTED, 
                 "Manager approval requested from: " + manager.getName());
         
         return saved;
@@ -73,33 +106,115 @@ public class ApprovalWorkflowService {
     
     public ApprovalWorkflow processApproval(Long approvalId, ApprovalWorkflow.ApprovalStatus decision, 
                                           String comments, User approver) {
-        Optional<ApprovalWorkflow> approvalOpt = approvalRepository.findById(approvalId);
+        Optional<ApprovalWorkflow> approvalOpt = approvalRepository.findWithRequestById(approvalId);
         if (approvalOpt.isPresent()) {
             ApprovalWorkflow approval = approvalOpt.get();
             
-            approval.setStatus(decision);
-            approval.setComments(comments);
-            approval.setApprovedAt(LocalDateTime.now());
-            
-            ApprovalWorkflow saved = approvalRepository.save(approval);
-            
-            updateRequestStatus(approval.getRequest(), decision, approval.getType());
-            
-            AuditLog.ActionType auditAction = decision == ApprovalWorkflow.ApprovalStatus.APPROVED ? 
-                    AuditLog.ActionType.APPROVAL_GRANTED : AuditLog.ActionType.APPROVAL_REJECTED;
-            
-            String auditDetails = approval.getType().toString() + " " + decision.toString().toLowerCase() + 
-                    " by " + approver.getName() + (comments != null ? ": " + comments : "");
-            
-            logAudit(approval.getRequest(), approver, auditAction, auditDetails);
+            if (approval.getStatus() != ApprovalWorkflow.ApprovalStatus.PENDING) {
+                throw new RuntimeException("Approval has already been processed");
+            }
             
-            return saved;
+            return applyDecision(approval, decision, comments, approver);
         }
         throw new RuntimeException("Approval not found with id: " + approvalId);
     }
     
+    // All items share one transaction: approvals and their requests are loaded in one query and
+    // their updates flushed as JDBC batches at commit. An item that fails validation, or that is
+    // assigned to someone other than the caller, is reported and skipped; a version conflict on any
+    // row rolls back the batch so the caller can retry it.
+    public BulkApprovalResponse processApprovals(List<BulkApprovalItem> items, User approver) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one approval is required");
+        }
+        if (items.size() > bulkMaxItems) {
+            throw new IllegalArgumentException("At most " + bulkMaxItems + " approvals can be processed at once");
+        }
+        
+        Set<Long> approvalIds = new HashSet<>();
+        for (BulkApprovalItem item : items) {
+            if (item.approvalId() != null) {
+                approvalIds.add(item.approvalId());
+            }
+        }
+        Map<Long, ApprovalWorkflow> approvals = new HashMap<>();
+        for (ApprovalWorkflow approval : approvalRepository.findWithRequestByIdIn(approvalIds)) {
+            approvals.put(approval.getId(), approval);
+        }
+        
+        List<BulkApprovalResult> results = new ArrayList<>(items.size());
+        Set<Long> seen = new HashSet<>();
+        for (BulkApprovalItem item : items) {
+            results.add(processItem(item, approvals, seen, approver));
+        }
+        return BulkApprovalResponse.of(results);
+    }
+    
+    private BulkApprovalResult processItem(BulkApprovalItem item, Map<Long, ApprovalWorkflow> approvals,
+                                           Set<Long> seen, User approver) {
+        Long approvalId = item.approvalId();
+        if (approvalId == null) {
+            return BulkApprovalResult.failed(null, "approvalId is required");
+        }
+        if (!seen.add(approvalId)) {
+            return BulkApprovalResult.failed(approvalId, "Approval appears more than once in the batch");
+        }
+        ApprovalWorkflow.ApprovalStatus decision = parseDecision(item.decision());
+        if (decision == null) {
+            return BulkApprovalResult.failed(approvalId, "Decision must be one of " + DECISIONS);
+        }
+        ApprovalWorkflow approval = approvals.get(approvalId);
+        if (approval == null) {
+            return BulkApprovalResult.failed(approvalId, "Approval not found with id: " + approvalId);
+        }
+        if (approval.getApprover() == null || !approval.getApprover().getId().equals(approver.getId())) {
+            return BulkApprovalResult.failed(approvalId, "Approval is assigned to another approver");
+        }
+        if (approval.getStatus() != ApprovalWorkflow.ApprovalStatus.PENDING) {
+            return BulkApprovalResult.failed(approvalId, "Approval has already been processed");
+        }
+        return BulkApprovalResult.processed(applyDecision(approval, decision, item.comments(), approver));
+    }
+    
+    private static ApprovalWorkflow.ApprovalStatus parseDecision(String decision) {
+        if (decision == null) {
+            return null;
+        }
+        try {
+            ApprovalWorkflow.ApprovalStatus status = ApprovalWorkflow.ApprovalStatus.valueOf(decision.toUpperCase());
+            return DECISIONS.contains(status) ? status : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private ApprovalWorkflow applyDecision(ApprovalWorkflow approval, ApprovalWorkflow.ApprovalStatus decision,
+                                           String comments, User approver) {
+        approval.setStatus(decision);
+        approval.setComments(comments);
+        approval.setApprovedAt(LocalDateTime.now());
+        
+        ApprovalWorkflow saved = approvalRepository.save(approval);
+        
+        MaintenanceRequest.RequestStatus previousStatus = approval.getRequest().getStatus();
+        updateRequestStatus(approval.getRequest(), decision, approval.getType());
+        outboxService.publish(OutboxEvent.EventType.APPROVAL_DECIDED, saved, previousStatus, approver);
+        inboxService.approvalDecided(saved);
+        
+        AuditLog.ActionType auditAction = decision == ApprovalWorkflow.ApprovalStatus.APPROVED ? 
+                AuditLog.ActionType.APPROVAL_GRANTED : AuditLog.ActionType.APPROVAL_REJECTED;
+        
+        String auditDetails = approval.getType().toString() + " " + decision.toString().toLowerCase() + 
+                " by " + approver.getName() + (comments != null ? ": " + comments : "");
+        
+        auditService.record(approval.getRequest(), approver, auditAction, auditDetails);
+        
+        return saved;
+    }
+    
     private void updateRequestStatus(MaintenanceRequest request, ApprovalWorkflow.ApprovalStatus decision, 
                                    ApprovalWorkflow.ApprovalType type) {
+        RequestCounterKey counterKey = RequestCounterKey.of(request);
         if (decision == ApprovalWorkflow.ApprovalStatus.REJECTED) {
             request.setStatus(MaintenanceRequest.RequestStatus.REJECTED);
         } else if (decision == ApprovalWorkflow.ApprovalStatus.MORE_INFO_REQUIRED) {
@@ -113,16 +228,7 @@ public class ApprovalWorkflowService {
         }
         
         requestRepository.save(request);
+        counterService.recordChange(counterKey, request);
     }
     
-    private void logAudit(MaintenanceRequest request, User user, AuditLog.ActionType action, String details) {
-        AuditLog auditLog = new AuditLog();
-        auditLog.setRequest(request);
-        auditLog.setUser(user);
-        auditLog.setAction(action);
-        auditLog.setDetails(details);
-        auditLog.setIpAddress("127.0.0.1");
-        auditLog.setUserAgent("MaintenanceApp/1.0");
-        auditLogRepository.save(auditLog);
-    }
 }
@@ -0,0 +1,147 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves closed requests that have not changed for the retention period, together with
+ * their approvals and audit logs, into the archive tables. Each batch is copied and
+ * deleted in one transaction so a request is always in exactly one place, and a run
+ * stops after a bounded number of batches to keep it from competing with live traffic.
+ * The selected requests are locked and re-checked before they are copied, and only
+ * deleted while still closed and unchanged; a batch whose delete misses any of them is
+ * rolled back and picked up again by the next run. So is a batch whose delete is refused
+ * because the asynchronous audit writer stored an entry for one of its requests after
+ * the audit logs were copied.
+ */
+@Service
+public class ArchivalService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArchivalService.class);
+    
+    private static final Set<MaintenanceRequest.RequestStatus> ARCHIVABLE_STATUSES = EnumSet.of(
+            MaintenanceRequest.RequestStatus.COMPLETED,
+            MaintenanceRequest.RequestStatus.REJECTED,
+            MaintenanceRequest.RequestStatus.CANCELLED);
+    
+    private static final List<String> ARCHIVABLE_STATUS_NAMES = ARCHIVABLE_STATUSES.stream()
+            .map(Enum::name)
+            .toList();
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${maintenance.archival.retention:90d}")
+    private Duration retention;
+    
+    @Value("${maintenance.archival.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${maintenance.archival.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelayString = "${maintenance.archival.interval-ms:3600000}",
+               initialDelayString = "${maintenance.archival.interval-ms:3600000}")
+    public void archiveClosedRequests() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved;
+            try {
+                moved = transactionTemplate.execute(tx -> archiveBatch(cutoff));
+            } catch (IllegalStateException e) {
+                logger.warn("Archival batch rolled back: {}", e.getMessage());
+                break;
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Archival batch rolled back: a selected request gained rows meanwhile ({})",
+                        e.getMostSpecificCause().getMessage());
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} closed requests last updated before {}", archived, cutoff);
+        }
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Object[]> rows = requestRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff,
+                PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, Long> candidates = new HashMap<>();
+        for (Object[] row : rows) {
+            candidates.put((Long) row[0], (Long) row[1]);
+        }
+        List<Long> requestIds = requestRepository.lockArchivable(candidates.keySet(), ARCHIVABLE_STATUSES, cutoff);
+        if (requestIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> payloadIds = new ArrayList<>(requestIds.size());
+        for (Long requestId : requestIds) {
+            Long payloadId = candidates.get(requestId);
+            if (payloadId != null) {
+                payloadIds.add(payloadId);
+            }
+        }
+        
+        archiveRepository.copyRequests(requestIds);
+        archiveRepository.copyApprovals(requestIds);
+        archiveRepository.copyAuditLogs(requestIds);
+        
+        archiveRepository.deleteHotAuditLogs(requestIds);
+        archiveRepository.deleteHotApprovals(requestIds);
+        archiveRepository.deleteHotExecutionClaims(requestIds);
+        int deleted = archiveRepository.deleteHotRequests(requestIds, ARCHIVABLE_STATUS_NAMES, cutoff);
+        if (deleted != requestIds.size()) {
+            throw new IllegalStateException("Only " + deleted + " of " + requestIds.size()
+                    + " requests were still archivable when deleted");
+        }
+        if (!payloadIds.isEmpty()) {
+            archiveRepository.deleteHotPayloads(payloadIds);
+        }
+        outboxService.publishArchived(requestIds);
+        return requestIds.size();
+    }
+}
@@ -0,0 +1,348 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditChainVerification;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.model.AuditChainHead;
+import com.maintenance.backend.repository.AuditChainHeadRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Tamper-evident primary copy of the audit trail. Every entry the audit writer stores is first
+ * appended here as a record whose HMAC-SHA256 covers the previous record's HMAC, across
+ * fixed-size memory-mapped segment files; {@code audit_logs} stays the queryable secondary.
+ * The key is configured outside the data directory, so the chain cannot be rewritten from the
+ * segment files alone. Editing or removing any record breaks every HMAC after it, and cutting
+ * records off the end leaves the chain short of the head anchored in {@code audit_chain_head};
+ * {@link #verify()} checks both. Every node keeps its own chain and anchors it in its own head row. Records are appended strictly in sequence order. A sequence
+ * already in the chain is skipped, so a WAL replay after a crash does not duplicate records.
+ */
+@Service
+public class AuditChainStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainStore.class);
+    
+    private static final String SEGMENT_SUFFIX = ".seg";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AuditChainHeadRepository headRepository;
+    
+    @Autowired
+    private ExecutionLeaseService leaseService;
+    
+    // Blank uses a temporary directory, matching the in-memory development database's lifetime.
+    @Value("${maintenance.audit.segment-dir:}")
+    private String segmentDir;
+    
+    @Value("${maintenance.audit.segment-size-bytes:67108864}")
+    private int segmentSize;
+    
+    // Base64 HMAC key; blank is only allowed with a temporary segment directory.
+    @Value("${maintenance.audit.chain-key:}")
+    private String chainKey;
+    
+    private Path directory;
+    private boolean temporary;
+    private final List<AuditSegment> segments = new ArrayList<>();
+    private AuditSegment active;
+    private long lastSequence;
+    private SecretKeySpec key;
+    private Mac mac;
+    
+    @PostConstruct
+    void open() throws IOException {
+        temporary = segmentDir.isBlank();
+        key = new SecretKeySpec(resolveKey(), "HmacSHA256");
+        mac = newMac();
+        if (temporary) {
+            directory = Files.createTempDirectory("audit-segments");
+        } else {
+            directory = Files.createDirectories(Path.of(segmentDir));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+                segments.add(AuditSegment.open(file));
+            }
+        }
+        active = segments.isEmpty()
+                ? createSegment(0, new byte[AuditSegment.HASH_LENGTH])
+                : segments.get(segments.size() - 1);
+        // A segment created just before a crash can be empty; the chain still ends in the one before it.
+        for (AuditSegment segment : segments) {
+            if (segment.getRecordCount() > 0) {
+                lastSequence = segment.getLastSequence();
+            }
+        }
+        logger.info("Opened {} audit segment(s) in {} ending at sequence {}",
+                segments.size(), directory, lastSequence);
+    }
+    
+    @PreDestroy
+    synchronized void close() throws IOException {
+        for (AuditSegment segment : segments) {
+            segment.close();
+            if (temporary) {
+                Files.deleteIfExists(segment.getPath());
+            }
+        }
+        if (temporary) {
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public synchronized byte[] getLastHash() {
+        return active.getLastHash();
+    }
+    
+    public synchronized void append(List<AuditEvent> events) {
+        try {
+            boolean appended = false;
+            for (AuditEvent event : events) {
+                if (event.sequence() <= lastSequence) {
+                    // Already in the chain: sequences are contiguous, so this is a replayed entry.
+                    continue;
+                }
+                if (event.sequence() != lastSequence + 1) {
+                    throw new IllegalStateException("Audit entry " + event.sequence()
+                            + " is out of order; the chain ends at " + lastSequence);
+                }
+                byte[] body = encode(event);
+                if (!active.hasRoomFor(body.length)) {
+                    active.force();
+                    active = createSegment(active.getNumber() + 1, active.getLastHash());
+                    if (!active.hasRoomFor(body.length)) {
+                        throw new IllegalStateException("Audit entry " + event.sequence()
+                                + " is larger than a segment (" + body.length + " bytes)");
+                    }
+                }
+                active.append(body, hash(active.getLastHash(), body));
+                lastSequence = event.sequence();
+                appended = true;
+            }
+            if (appended) {
+                active.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the audit segments", e);
+        }
+    }
+    
+    public List<AuditEvent> find(Long requestId, LocalDateTime from, LocalDateTime to) {
+        long lower = from == null ? Long.MIN_VALUE : toEpochMillis(from);
+        long upper = to == null ? Long.MAX_VALUE : toEpochMillis(to);
+        List<AuditEvent> events = new ArrayList<>();
+        for (SegmentSnapshot snapshot : snapshot(requestId, lower, upper)) {
+            ByteBuffer buffer = snapshot.segment().view();
+            int position = snapshot.start();
+            while (position < snapshot.end()) {
+                int bodyLength = buffer.getInt(position);
+                long recordRequestId = buffer.getLong(position + 12);
+                long timestamp = buffer.getLong(position + 20);
+                if ((requestId == null || recordRequestId == requestId) && timestamp >= lower && timestamp < upper) {
+                    AuditEvent event = decode(buffer, position + 4 + AuditSegment.BODY_FIXED_LENGTH,
+                            bodyLength - AuditSegment.BODY_FIXED_LENGTH);
+                    // Rolled-back markers only keep the sequence contiguous; they are not audit entries.
+                    if (!AuditService.isRolledBack(event)) {
+                        events.add(event);
+                    }
+                }
+                position += 4 + bodyLength + AuditSegment.HASH_LENGTH;
+            }
+        }
+        return events;
+    }
+    
+    // Runs in the transaction that stores the records up to sequence in audit_logs.
+    public void anchorHead(long sequence, byte[] hash) {
+        String nodeId = leaseService.getNodeId();
+        String hex = HexFormat.of().formatHex(hash);
+        LocalDateTime now = LocalDateTime.now();
+        if (headRepository.advance(nodeId, sequence, hex, now) == 0 && !headRepository.existsById(nodeId)) {
+            AuditChainHead head = new AuditChainHead();
+            head.setNodeId(nodeId);
+            head.setLastSequence(sequence);
+            head.setLastHash(hex);
+            head.setUpdatedAt(now);
+            headRepository.save(head);
+        }
+    }
+    
+    public AuditChainVerification verify() {
+        AuditChainHead head = headRepository.findById(leaseService.getNodeId()).orElse(null);
+        if (head == null || head.getLastHash() == null) {
+            return verify(0, null);
+        }
+        return verify(head.getLastSequence(), HexFormat.of().parseHex(head.getLastHash()));
+    }
+    
+    // The chain may run ahead of the head, which only moves once a batch is in audit_logs.
+    AuditChainVerification verify(long headSequence, byte[] headHash) {
+        long started = System.currentTimeMillis();
+        List<SegmentSnapshot> snapshots = snapshot(null, Long.MIN_VALUE, Long.MAX_VALUE);
+        Mac verifier = newMac();
+        byte[] previous = new byte[AuditSegment.HASH_LENGTH];
+        byte[] stored = new byte[AuditSegment.HASH_LENGTH];
+        long records = 0;
+        long lastSequence = 0;
+        for (SegmentSnapshot snapshot : snapshots) {
+            AuditSegment segment = snapshot.segment();
+            if (!Arrays.equals(segment.getPreviousHash(), previous)) {
+                return new AuditChainVerification(false, snapshots.size(), records, lastSequence, lastSequence + 1,
+                        "Segment " + segment.getNumber() + " does not link to the previous segment",
+                        System.currentTimeMillis() - started);
+            }
+            ByteBuffer buffer = segment.view();
+            int position = AuditSegment.HEADER_LENGTH;
+            while (position < snapshot.end()) {
+                int bodyLength = buffer.getInt(position);
+                long sequence = buffer.getLong(position + 4);
+                verifier.update(previous);
+                verifier.update(buffer.slice(position + 4, bodyLength));
+                byte[] expected = verifier.doFinal();
+                buffer.get(position + 4 + bodyLength, stored);
+                if (!Arrays.equals(expected, stored) || sequence <= lastSequence) {
+                    return new AuditChainVerification(false, snapshots.size(), records, lastSequence, sequence,
+                            "Record " + sequence + " in segment " + segment.getNumber() + " does not match its hash",
+                            System.currentTimeMillis() - started);
+                }
+                if (sequence == headSequence && !Arrays.equals(expected, headHash)) {
+                    return new AuditChainVerification(false, snapshots.size(), records, lastSequence, sequence,
+                            "Record " + sequence + " does not match the anchored chain head",
+                            System.currentTimeMillis() - started);
+                }
+                previous = expected;
+                lastSequence = sequence;
+                records++;
+                position += 4 + bodyLength + AuditSegment.HASH_LENGTH;
+            }
+        }
+        if (lastSequence < headSequence) {
+            return new AuditChainVerification(false, snapshots.size(), records, lastSequence, lastSequence + 1,
+                    "Audit chain ends at sequence " + lastSequence + " but its anchored head is at " + headSequence,
+                    System.currentTimeMillis() - started);
+        }
+        return new AuditChainVerification(true, snapshots.size(), records, lastSequence, null,
+                "Audit chain verified", System.currentTimeMillis() - started);
+    }
+    
+    // Streams the raw segments, including headers and hashes, so the export can be verified offline.
+    public long export(WritableByteChannel target) throws IOException {
+        long written = 0;
+        for (SegmentSnapshot snapshot : snapshot(null, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            written += snapshot.segment().transferTo(target, snapshot.end());
+        }
+        return written;
+    }
+    
+    private synchronized List<SegmentSnapshot> snapshot(Long requestId, long from, long to) {
+        List<SegmentSnapshot> snapshots = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            if (requestId == null && from == Long.MIN_VALUE && to == Long.MAX_VALUE) {
+                snapshots.add(new SegmentSnapshot(segment, AuditSegment.HEADER_LENGTH, segment.getWritePosition()));
+            } else if (segment.mayContain(requestId, from, to)) {
+                snapshots.add(new SegmentSnapshot(segment, segment.seek(from), segment.getWritePosition()));
+            }
+        }
+        return snapshots;
+    }
+    
+    private AuditSegment createSegment(long number, byte[] previousHash) throws IOException {
+        Path file = directory.resolve(String.format("%016d%s", number, SEGMENT_SUFFIX));
+        AuditSegment segment = AuditSegment.create(file, number, segmentSize, previousHash);
+        segments.add(segment);
+        return segment;
+    }
+    
+    private byte[] encode(AuditEvent event) throws JsonProcessingException {
+        byte[] payload = objectMapper.writeValueAsBytes(event);
+        ByteBuffer body = ByteBuffer.allocate(AuditSegment.BODY_FIXED_LENGTH + payload.length);
+        body.putLong(event.sequence());
+        body.putLong(event.requestId() == null ? -1 : event.requestId());
+        body.putLong(event.createdAt() == null ? 0 : toEpochMillis(event.createdAt()));
+        body.put(payload);
+        return body.array();
+    }
+    
+    private AuditEvent decode(ByteBuffer buffer, int offset, int length) {
+        byte[] payload = new byte[length];
+        buffer.get(offset, payload);
+        try {
+            return objectMapper.readValue(payload, AuditEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable audit record at offset " + offset, e);
+        }
+    }
+    
+    private byte[] hash(byte[] previous, byte[] body) {
+        mac.update(previous);
+        mac.update(body);
+        return mac.doFinal();
+    }
+    
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // A per-process key is enough for segments that are deleted on shutdown; kept ones need a stable key.
+    private byte[] resolveKey() {
+        if (!chainKey.isBlank()) {
+            byte[] decoded = Base64.getDecoder().decode(chainKey.trim());
+            if (decoded.length < 32) {
+                throw new IllegalStateException("maintenance.audit.chain-key must be at least 32 bytes");
+            }
+            return decoded;
+        }
+        if (!temporary) {
+            throw new IllegalStateException("maintenance.audit.chain-key must be set when audit segments are kept in "
+                    + segmentDir);
+        }
+        byte[] generated = new byte[32];
+        new SecureRandom().nextBytes(generated);
+        return generated;
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private record SegmentSnapshot(AuditSegment segment, int start, int end) {
+    }
+}
@@ -0,0 +1,219 @@
+package com.maintenance.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One fixed-size, memory-mapped audit segment file.
+ *
+ * <pre>
+ * header:  magic(8) segmentNumber(8) previousHash(32)
+ * record:  bodyLength(4) body(bodyLength) hash(32)
+ * body:    sequence(8) requestId(8, -1 for none) createdAtMillis(8) payload(bodyLength - 24)
+ * hash:    HMAC-SHA256(key, previous record's hash || body)
+ * </pre>
+ *
+ * The length prefix is written last, so a record with a non-zero length is complete and the
+ * first zero length marks the end of the segment. Every record's header fields feed a sparse
+ * index built when the segment is opened or appended to: the set of request ids in the
+ * segment, its timestamp range, and every {@value #INDEX_INTERVAL}th record's offset.
+ */
+final class AuditSegment {
+    
+    static final long MAGIC = 0x4155444954534547L;
+    static final int HASH_LENGTH = 32;
+    static final int HEADER_LENGTH = 8 + 8 + HASH_LENGTH;
+    static final int BODY_FIXED_LENGTH = 8 + 8 + 8;
+    private static final int INDEX_INTERVAL = 64;
+    
+    private final Path path;
+    private final long number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final byte[] previousHash = new byte[HASH_LENGTH];
+    
+    private final Set<Long> requestIds = new HashSet<>();
+    private final List<long[]> timeIndex = new ArrayList<>();
+    private int writePosition = HEADER_LENGTH;
+    private int recordCount;
+    private long lastSequence;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private byte[] lastHash;
+    
+    private AuditSegment(Path path, long number, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.number = number;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+    
+    static AuditSegment create(Path path, long number, int size, byte[] previousHash) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putLong(0, MAGIC);
+        buffer.putLong(8, number);
+        buffer.put(16, previousHash);
+        buffer.force();
+        AuditSegment segment = new AuditSegment(path, number, channel, buffer);
+        System.arraycopy(previousHash, 0, segment.previousHash, 0, HASH_LENGTH);
+        segment.lastHash = previousHash.clone();
+        return segment;
+    }
+    
+    static AuditSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getLong(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not an audit segment: " + path);
+        }
+        AuditSegment segment = new AuditSegment(path, buffer.getLong(8), channel, buffer);
+        buffer.get(16, segment.previousHash);
+        segment.lastHash = segment.previousHash.clone();
+        segment.scan();
+        return segment;
+    }
+    
+    private void scan() {
+        int position = HEADER_LENGTH;
+        while (true) {
+            int bodyLength = recordLength(position);
+            if (bodyLength <= 0) {
+                break;
+            }
+            indexRecord(position);
+            lastHash = new byte[HASH_LENGTH];
+            buffer.get(position + 4 + bodyLength, lastHash);
+            position += 4 + bodyLength + HASH_LENGTH;
+        }
+        writePosition = position;
+    }
+    
+    boolean hasRoomFor(int bodyLength) {
+        return writePosition + 4L + bodyLength + HASH_LENGTH <= buffer.capacity();
+    }
+    
+    void append(byte[] body, byte[] hash) {
+        int position = writePosition;
+        buffer.put(position + 4, body);
+        buffer.put(position + 4 + body.length, hash);
+        buffer.putInt(position, body.length);
+        indexRecord(position);
+        lastHash = hash;
+        writePosition = position + 4 + body.length + HASH_LENGTH;
+    }
+    
+    private void indexRecord(int position) {
+        long sequence = buffer.getLong(position + 4);
+        long requestId = buffer.getLong(position + 12);
+        long timestamp = buffer.getLong(position + 20);
+        if (requestId >= 0) {
+            requestIds.add(requestId);
+        }
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        // The running maximum keeps the index usable when concurrent transitions commit slightly out of order.
+        if (recordCount % INDEX_INTERVAL == 0) {
+            timeIndex.add(new long[] {maxTimestamp, position});
+        } else {
+            timeIndex.get(timeIndex.size() - 1)[0] = maxTimestamp;
+        }
+        recordCount++;
+        lastSequence = sequence;
+    }
+    
+    int recordLength(int position) {
+        if (position + 4 > buffer.capacity()) {
+            return 0;
+        }
+        int bodyLength = buffer.getInt(position);
+        if (bodyLength < BODY_FIXED_LENGTH || position + 4L + bodyLength + HASH_LENGTH > buffer.capacity()) {
+            return 0;
+        }
+        return bodyLength;
+    }
+    
+    // Offset of the first record that may have a timestamp at or after from.
+    int seek(long from) {
+        int low = 0;
+        int high = timeIndex.size() - 1;
+        int start = HEADER_LENGTH;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timeIndex.get(mid)[0] < from) {
+                low = mid + 1;
+            } else {
+                start = (int) timeIndex.get(mid)[1];
+                high = mid - 1;
+            }
+        }
+        return low >= timeIndex.size() ? writePosition : start;
+    }
+    
+    boolean mayContain(Long requestId, long from, long to) {
+        if (recordCount == 0 || maxTimestamp < from || minTimestamp > to) {
+            return false;
+        }
+        return requestId == null || requestIds.contains(requestId);
+    }
+    
+    ByteBuffer view() {
+        return buffer.duplicate();
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    long transferTo(WritableByteChannel target, int limit) throws IOException {
+        long transferred = 0;
+        while (transferred < limit) {
+            transferred += channel.transferTo(transferred, limit - transferred, target);
+        }
+        return transferred;
+    }
+    
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    long getNumber() {
+        return number;
+    }
+    
+    byte[] getPreviousHash() {
+        return previousHash.clone();
+    }
+    
+    byte[] getLastHash() {
+        return lastHash.clone();
+    }
+    
+    long getLastSequence() {
+        return lastSequence;
+    }
+    
+    int getRecordCount() {
+        return recordCount;
+    }
+    
+    int getWritePosition() {
+        return writePosition;
+    }
+}
@@ -0,0 +1,473 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.model.AuditLog;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.AuditLogRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import com.maintenance.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records audit entries off the workflow's critical path. Each entry gets its sequence number
+ * and is forced to a local write-ahead log while the workflow transaction is committing, so a
+ * crash straight after the commit cannot lose it. Once the outcome is known the entry is queued
+ * on a lock-free ring buffer, or replaced by a rolled-back marker if the transaction did not
+ * commit. A background writer restores sequence order, appends each contiguous run to the
+ * hash-chained {@link AuditChainStore}, writes the entries to {@code audit_logs} in JDBC batches
+ * and checkpoints the highest sequence it has stored. On startup, WAL entries past the
+ * checkpoint are replayed, so entries queued before a crash are not lost. The writer keeps
+ * draining the ring while a write is failing, and at most {@code max-backlog} entries may be
+ * issued and not yet stored; beyond that new entries are refused, which rolls back the
+ * transition recording them instead of letting the backlog grow without bound.
+ */
+@Service
+public class AuditService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    
+    private static final String WAL_FILE = "audit.wal";
+    private static final String CHECKPOINT_FILE = "audit.checkpoint";
+    private static final String IP_ADDRESS = "127.0.0.1";
+    private static final String USER_AGENT = "MaintenanceApp/1.0";
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private AuditChainStore chainStore;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Blank keeps queued entries in memory only, which suits the in-memory development database.
+    @Value("${maintenance.audit.wal-dir:}")
+    private String walDir;
+    
+    @Value("${maintenance.audit.ring-capacity:8192}")
+    private int ringCapacity;
+    
+    @Value("${maintenance.audit.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${maintenance.audit.flush-interval-ms:50}")
+    private long flushIntervalMs;
+    
+    @Value("${maintenance.audit.wal-max-bytes:16777216}")
+    private long walMaxBytes;
+    
+    @Value("${maintenance.audit.max-backlog:65536}")
+    private long maxBacklog;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock walLock = new ReentrantLock();
+    
+    // Writer-thread state: entries that arrived ahead of an earlier sequence still in flight.
+    private final TreeMap<Long, AuditEvent> pending = new TreeMap<>();
+    private long nextSequence;
+    private long waitingSince;
+    private long retryAt;
+    
+    // Highest sequence stored by the writer; everything issued past it is backlog.
+    private volatile long stored;
+    
+    private AuditRingBuffer<AuditEvent> ring;
+    private TransactionTemplate transactionTemplate;
+    private FileChannel wal;
+    private Path checkpointPath;
+    private volatile long lastAppended;
+    private volatile boolean running = true;
+    private Thread writer;
+    
+    @PostConstruct
+    void start() throws IOException {
+        ring = new AuditRingBuffer<>(ringCapacity);
+        sequence.set(chainStore.getLastSequence());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!walDir.isBlank()) {
+            openWal();
+        }
+        nextSequence = sequence.get() + 1;
+        stored = sequence.get();
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (wal != null) {
+            wal.close();
+        }
+    }
+    
+    public void record(MaintenanceRequest request, User user, AuditLog.ActionType action, String details) {
+        Long requestId = request == null ? null : request.getId();
+        Long userId = user == null ? null : user.getId();
+        LocalDateTime createdAt = LocalDateTime.now();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(prepare(requestId, userId, action, details, createdAt, false));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private AuditEvent event;
+            
+            // Throwing here rolls the workflow transaction back: its entry could not be made durable
+            // or the backlog is full.
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                event = prepare(requestId, userId, action, details, createdAt, true);
+            }
+            
+            // An unknown outcome is kept; an extra entry is preferable to a lost one.
+            @Override
+            public void afterCompletion(int status) {
+                if (event == null) {
+                    return;
+                }
+                if (status == STATUS_ROLLED_BACK) {
+                    event = rolledBack(event.sequence(), createdAt);
+                    walLock.lock();
+                    try {
+                        if (wal != null) {
+                            appendToWal(event);
+                        }
+                    } catch (IOException e) {
+                        // Replay would store the entry although its transition rolled back.
+                        logger.error("Failed to mark audit entry {} as rolled back in the write-ahead log",
+                                event.sequence(), e);
+                    } finally {
+                        walLock.unlock();
+                    }
+                }
+                enqueue(event);
+            }
+        });
+    }
+    
+    // Entries issued but not yet stored, whether still in a transaction, on the ring or held by the writer.
+    public long getBacklog() {
+        return sequence.get() - stored;
+    }
+    
+    // Sequence order and WAL order agree, so the checkpoint always covers a prefix of the log.
+    private AuditEvent prepare(Long requestId, Long userId, AuditLog.ActionType action, String details,
+                               LocalDateTime createdAt, boolean durable) {
+        AuditEvent event;
+        IOException failure = null;
+        walLock.lock();
+        try {
+            // No sequence is issued, so the writer has nothing to wait for.
+            if (sequence.get() - stored >= maxBacklog) {
+                throw new IllegalStateException("Audit backlog is full: " + maxBacklog
+                        + " entries are waiting to be stored");
+            }
+            event = new AuditEvent(sequence.incrementAndGet(), requestId, userId, action, details,
+                    IP_ADDRESS, USER_AGENT, createdAt);
+            if (wal != null) {
+                try {
+                    appendToWal(event);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } finally {
+            walLock.unlock();
+        }
+        if (failure == null) {
+            return event;
+        }
+        if (!durable) {
+            // Nothing to roll back; the entry is still queued but loses crash protection.
+            logger.error("Failed to append audit entry {} to the write-ahead log", event.sequence(), failure);
+            return event;
+        }
+        // The writer must still see the sequence, or it would wait for it forever.
+        enqueue(rolledBack(event.sequence(), createdAt));
+        throw new UncheckedIOException("Failed to append audit entry " + event.sequence()
+                + " to the write-ahead log", failure);
+    }
+    
+    // Keeps the sequence of a transition that did not commit, so the chain has no unexplained gaps.
+    static AuditEvent rolledBack(long sequence, LocalDateTime createdAt) {
+        return new AuditEvent(sequence, null, null, null, "rolled back", null, null, createdAt);
+    }
+    
+    static boolean isRolledBack(AuditEvent event) {
+        return event.action() == null;
+    }
+    
+    // The writer drains the ring even while writes fail and the backlog bound covers the ring, so a
+    // full ring only lasts until the writer's next pass. Producers wait rather than drop entries, and
+    // never while holding walLock.
+    private void enqueue(AuditEvent event) {
+        while (!ring.offer(event)) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+    
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || ring.size() > 0 || !batch.isEmpty()) {
+            // Drained on every pass, so producers are not left waiting for ring space behind a failing write.
+            drainRing();
+            if (batch.isEmpty()) {
+                takeInOrder(batch);
+            }
+            if (batch.isEmpty() || System.currentTimeMillis() < retryAt) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            try {
+                writeBatch(batch);
+                stored = batch.get(batch.size() - 1).sequence();
+                batch.clear();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write {} audit entries; retrying with {} entries in the backlog",
+                        batch.size(), getBacklog(), e);
+                if (!running) {
+                    return;
+                }
+                retryAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(1);
+            }
+        }
+    }
+    
+    // Entries reach the ring in commit order, not sequence order; they are held until their turn.
+    private void drainRing() {
+        AuditEvent event;
+        while ((event = ring.poll()) != null) {
+            if (event.sequence() < nextSequence || pending.putIfAbsent(event.sequence(), event) != null) {
+                logger.error("Dropping audit entry {}: its sequence was queued twice", event.sequence());
+            }
+        }
+    }
+    
+    // Only the next contiguous run is taken.
+    private void takeInOrder(List<AuditEvent> batch) {
+        while (batch.size() < batchSize && !pending.isEmpty() && pending.firstKey() == nextSequence) {
+            batch.add(pending.pollFirstEntry().getValue());
+            nextSequence++;
+        }
+        if (batch.isEmpty() && !pending.isEmpty()) {
+            long now = System.currentTimeMillis();
+            if (waitingSince == 0) {
+                waitingSince = now;
+            } else if (now - waitingSince > TimeUnit.SECONDS.toMillis(10)) {
+                logger.warn("Audit writer has waited {} ms for sequence {}; {} later entries are held",
+                        now - waitingSince, nextSequence, pending.size());
+                waitingSince = now;
+            }
+        } else {
+            waitingSince = 0;
+        }
+    }
+    
+    private void writeBatch(List<AuditEvent> batch) {
+        chainStore.append(batch);
+        store(batch);
+        checkpoint(batch.get(batch.size() - 1).sequence());
+    }
+    
+    // The chain head is advanced with the rows, so it never points past what audit_logs holds.
+    private void store(List<AuditEvent> batch) {
+        List<AuditEvent> events = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            if (!isRolledBack(event)) {
+                events.add(event);
+            }
+        }
+        long headSequence = chainStore.getLastSequence();
+        byte[] headHash = chainStore.getLastHash();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                auditLogRepository.saveAll(toEntities(events));
+                chainStore.anchorHead(headSequence, headHash);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // One bad entry (e.g. its request was deleted) must not block the rest of the batch.
+            for (AuditEvent event : events) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> auditLogRepository.save(toEntity(event)));
+                } catch (DataIntegrityViolationException skipped) {
+                    logger.error("Dropping audit entry {} for request {}: {}", event.sequence(), event.requestId(),
+                            skipped.getMostSpecificCause().getMessage());
+                }
+            }
+            transactionTemplate.executeWithoutResult(
+                    tx -> chainStore.anchorHead(headSequence, headHash));
+        }
+    }
+    
+    private List<AuditLog> toEntities(List<AuditEvent> events) {
+        List<AuditLog> logs = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            logs.add(toEntity(event));
+        }
+        return logs;
+    }
+    
+    private AuditLog toEntity(AuditEvent event) {
+        AuditLog auditLog = new AuditLog();
+        if (event.requestId() != null) {
+            auditLog.setRequest(requestRepository.getReferenceById(event.requestId()));
+        }
+        if (event.userId() != null) {
+            auditLog.setUser(userRepository.getReferenceById(event.userId()));
+        }
+        auditLog.setAction(event.action());
+        auditLog.setDetails(event.details());
+        auditLog.setIpAddress(event.ipAddress());
+        auditLog.setUserAgent(event.userAgent());
+        auditLog.setCreatedAt(event.createdAt());
+        return auditLog;
+    }
+    
+    private void openWal() throws IOException {
+        Path directory = Path.of(walDir);
+        Files.createDirectories(directory);
+        checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        Path walPath = directory.resolve(WAL_FILE);
+    
+        long checkpoint = Files.exists(checkpointPath)
+                ? Long.parseLong(Files.readString(checkpointPath).trim()) : 0L;
+        // A rolled-back marker is written after its entry, so the last line for a sequence wins.
+        TreeMap<Long, AuditEvent> logged = new TreeMap<>();
+        long highest = checkpoint;
+        if (Files.exists(walPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(walPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    AuditEvent event;
+                    try {
+                        event = objectMapper.readValue(line, AuditEvent.class);
+                    } catch (JsonProcessingException e) {
+                        // A torn final line from a crash mid-append; nothing after it was acknowledged.
+                        logger.warn("Ignoring unreadable audit WAL entry after sequence {}", highest);
+                        break;
+                    }
+                    highest = Math.max(highest, event.sequence());
+                    if (event.sequence() > checkpoint) {
+                        logged.put(event.sequence(), event);
+                    }
+                }
+            }
+        }
+        sequence.set(Math.max(sequence.get(), highest));
+    
+        // Sequences issued but never logged (a failed append) did not commit; the chain records them as such.
+        List<AuditEvent> pending = new ArrayList<>();
+        for (long next = checkpoint + 1; next <= highest; next++) {
+            AuditEvent event = logged.get(next);
+            if (event == null && next > chainStore.getLastSequence()) {
+                event = rolledBack(next, LocalDateTime.now());
+            }
+            if (event != null) {
+                pending.add(event);
+            }
+        }
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            writeBatch(pending.subList(from, Math.min(from + batchSize, pending.size())));
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Replayed {} audit entries from the write-ahead log", pending.size());
+        }
+    
+        wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        wal.truncate(0);
+        wal.position(0);
+        lastAppended = highest;
+    }
+    
+    // Callers hold walLock.
+    private void appendToWal(AuditEvent event) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            wal.write(buffer);
+        }
+        wal.force(false);
+        lastAppended = Math.max(lastAppended, event.sequence());
+    }
+    
+    private void checkpoint(long stored) {
+        if (checkpointPath == null) {
+            return;
+        }
+        try {
+            Path temp = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, Long.toString(stored));
+            Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (wal != null && stored == lastAppended && wal.size() > walMaxBytes) {
+                truncateWal();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to checkpoint the audit write-ahead log at {}", stored, e);
+        }
+    }
+    
+    // Everything in the log is stored, so it can start over empty. A producer appending under the
+    // lock is not held up by the truncation; it is left for a later batch instead.
+    private void truncateWal() throws IOException {
+        if (!walLock.tryLock()) {
+            return;
+        }
+        try {
+            if (readCheckpoint() == lastAppended) {
+                wal.truncate(0);
+                wal.position(0);
+            }
+        } finally {
+            walLock.unlock();
+        }
+    }
+    
+    private long readCheckpoint() throws IOException {
+        return Long.parseLong(Files.readString(checkpointPath).trim());
+    }
+}
@@ -0,0 +1,33 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.config.CacheConfig;
+import com.maintenance.backend.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatisticsService {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    public List<CacheRegionStats> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStats> regions = new ArrayList<>();
+        addRegion(regions, CacheConfig.USERS_REGION, statistics.getDomainDataRegionStatistics(CacheConfig.USERS_REGION));
+        addRegion(regions, CacheConfig.USER_QUERIES_REGION, statistics.getQueryRegionStatistics(CacheConfig.USER_QUERIES_REGION));
+        return regions;
+    }
+    
+    private static void addRegion(List<CacheRegionStats> regions, String name, CacheRegionStatistics region) {
+        if (region != null) {
+            regions.add(new CacheRegionStats(name, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+    }
+}
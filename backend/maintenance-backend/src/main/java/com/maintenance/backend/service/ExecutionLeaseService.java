@@ -0,0 +1,138 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.repository.ExecutionClaimRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grants a single node in the cluster the right to execute a request. A claim row is
+ * inserted (or taken over once its lease has expired) in its own transaction, kept
+ * alive by a heartbeat while execution runs, and released when the caller's
+ * transaction completes.
+ */
+@Service
+public class ExecutionLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionLeaseService.class);
+
+    @Autowired
+    private ExecutionClaimRepository claimRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${maintenance.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${maintenance.cluster.require-node-id:false}")
+    private boolean requireNodeId;
+
+    @Value("${maintenance.execution.lease-duration-ms:30000}")
+    private long leaseDurationMs;
+
+    private final Set<Long> heldLeases = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate requiresNew;
+
+    private String nodeId;
+
+    @PostConstruct
+    void init() {
+        if (configuredNodeId.isBlank() && requireNodeId) {
+            // Outbox offsets and audit chain heads are stored per node id, so a generated id would orphan them
+            throw new IllegalStateException("maintenance.cluster.node-id must be set to a stable id for this node");
+        }
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nodeId = configuredNodeId.isBlank() ? generateNodeId() : configuredNodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean tryAcquire(Long requestId) {
+        if (!insertClaim(requestId) && !reclaimExpired(requestId)) {
+            return false;
+        }
+
+        heldLeases.add(requestId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(requestId);
+                }
+            });
+        }
+        return true;
+    }
+
+    public void release(Long requestId) {
+        heldLeases.remove(requestId);
+        try {
+            requiresNew.executeWithoutResult(tx -> claimRepository.releaseClaim(requestId, nodeId));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release execution lease for request {}; it will expire in {} ms",
+                    requestId, leaseDurationMs, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${maintenance.execution.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (heldLeases.isEmpty()) {
+            return;
+        }
+
+        List<Long> requestIds = new ArrayList<>(heldLeases);
+        Integer renewed = requiresNew.execute(tx -> claimRepository.renewClaims(requestIds, nodeId, leaseDurationMs));
+        if (renewed == null || renewed < requestIds.size()) {
+            logger.warn("Renewed {} of {} execution leases held by node {}", renewed, requestIds.size(), nodeId);
+        }
+    }
+
+    private boolean insertClaim(Long requestId) {
+        try {
+            Integer inserted = requiresNew.execute(tx -> claimRepository.insertClaim(requestId, nodeId, leaseDurationMs));
+            return inserted != null && inserted == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean reclaimExpired(Long requestId) {
+        Integer reclaimed = requiresNew.execute(tx -> claimRepository.reclaimExpired(requestId, nodeId, leaseDurationMs));
+        if (reclaimed != null && reclaimed == 1) {
+            logger.info("Node {} reclaimed expired execution lease for request {}", nodeId, requestId);
+            return true;
+        }
+        return false;
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,161 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditLogExportRow;
+import com.maintenance.backend.dto.RequestExportRow;
+import com.maintenance.backend.model.ArchivedAuditLog;
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
+import com.maintenance.backend.model.AuditLog;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.repository.ArchivedAuditLogRepository;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import com.maintenance.backend.repository.AuditLogRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes full table exports row by row straight to the response. Rows come from scrolling
+ * repository streams and the persistence context is cleared every batch, so memory use does
+ * not grow with the size of the table. The hot table is written first and then its archive,
+ * each row marked with the table it came from.
+ */
+@Service
+public class ExportService {
+    
+    public enum Format {
+        NDJSON("application/x-ndjson"), CSV("text/csv");
+        
+        private final String contentType;
+        
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (expected ndjson or csv)");
+            }
+        }
+    }
+    
+    private static final int CLEAR_INTERVAL = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archivedRequestRepository;
+    
+    @Autowired
+    private ArchivedAuditLogRepository archivedAuditLogRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
+    public long exportRequests(Format format, OutputStream out) throws IOException {
+        try (Stream<MaintenanceRequest> requests = requestRepository.streamAllForExport();
+             Stream<ArchivedMaintenanceRequest> archived = archivedRequestRepository.streamAllForExport()) {
+            return write(Stream.concat(requests.map(RequestExportRow::of), archived.map(RequestExportRow::of)),
+                    RequestExportRow.class, format, out);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportAuditLogs(Format format, OutputStream out) throws IOException {
+        try (Stream<AuditLog> logs = auditLogRepository.streamAllForExport();
+             Stream<ArchivedAuditLog> archived = archivedAuditLogRepository.streamAllForExport()) {
+            return write(Stream.concat(logs.map(AuditLogExportRow::of), archived.map(AuditLogExportRow::of)),
+                    AuditLogExportRow.class, format, out);
+        }
+    }
+    
+    private <T extends Record> long write(Stream<T> rows, Class<T> type, Format format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RecordComponent[] columns = type.getRecordComponents();
+        if (format == Format.CSV) {
+            writeCsvHeader(writer, columns);
+        }
+        
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == Format.CSV) {
+                writeCsvRow(writer, columns, row);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            // The row has been copied out of its entities, so they can be dropped from the session.
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+    
+    private static void writeCsvHeader(Writer writer, RecordComponent[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns[i].getName());
+        }
+        writer.write("\r\n");
+    }
+    
+    private static void writeCsvRow(Writer writer, RecordComponent[] columns, Record row) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value;
+            try {
+                value = columns[i].getAccessor().invoke(row);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            if (value != null) {
+                writer.write(csvEscape(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,43 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class KeysetPagination {
+    
+    @Value("${maintenance.pagination.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${maintenance.pagination.max-page-size:200}")
+    private int maxPageSize;
+    
+    public int resolveLimit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(requested, maxPageSize);
+    }
+    
+    // One row beyond the limit is fetched so the presence of a next page is known without a count query.
+    public Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+    
+    public <T> CursorPage<T> toPage(List<T> rows, int limit,
+                                    Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(items, new PageCursor(createdAt.apply(last), id.apply(last)).encode());
+    }
+}
@@ -1,30 +1,91 @@
 package com.maintenance.backend.service;
 
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.dto.PageCursor;
+import com.maintenance.backend.dto.RequestFilter;
+import com.maintenance.backend.dto.RequestStats;
+import com.maintenance.backend.dto.TimelineCursor;
+import com.maintenance.backend.dto.TimelineEntry;
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
 import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.RequestCounterKey;
 import com.maintenance.backend.model.User;
 import com.maintenance.backend.model.AuditLog;
-import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import com.maintenance.backend.repository.ApprovalWorkflowRepository;
+import com.maintenance.backend.repository.ArchivedApprovalWorkflowRepository;
+import com.maintenance.backend.repository.ArchivedAuditLogRepository;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
 import com.maintenance.backend.repository.AuditLogRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import com.maintenance.backend.repository.MaintenanceRequestSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class MaintenanceRequestService {
     
+    private static final Comparator<TimelineEntry> TIMELINE_ORDER = Comparator
+            .comparing(TimelineEntry::occurredAt, Comparator.reverseOrder())
+            .thenComparing(TimelineEntry::kind)
+            .thenComparing(TimelineEntry::id, Comparator.reverseOrder());
+    
+    private static final Map<String, Function<MaintenanceRequestSummary, LocalDateTime>> FILTER_SORT_KEYS = Map.of(
+            "createdAt", MaintenanceRequestSummary::createdAt,
+            "updatedAt", MaintenanceRequestSummary::updatedAt,
+            "completedAt", MaintenanceRequestSummary::completedAt);
+    
     @Autowired
     private MaintenanceRequestRepository requestRepository;
     
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
     @Autowired
     private AuditLogRepository auditLogRepository;
     
+    @Autowired
+    private ApprovalWorkflowRepository approvalRepository;
+    
+    @Autowired
+    private ArchivedAuditLogRepository archivedAuditLogRepository;
+    
+    @Autowired
+    private ArchivedApprovalWorkflowRepository archivedApprovalRepository;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
     @Autowired
     private SqlValidationService sqlValidationService;
     
+    @Autowired
+    private ExecutionLeaseService executionLeaseService;
+    
+    @Autowired
+    private KeysetPagination pagination;
+    
+    @Autowired
+    private RequestCounterService counterService;
+    
+    @Transactional(readOnly = true)
     public List<MaintenanceRequest> getAllRequests() {
         return requestRepository.findAll();
     }
@@ -33,15 +94,96 @@ public class MaintenanceRequestService {
         return requestRepository.findById(id);
     }
     
-    public List<MaintenanceRequest> getRequestsBySubmitter(User submitter) {
-        return requestRepository.findBySubmitter(submitter);
+    @Transactional(readOnly = true)
+    public Optional<MaintenanceRequest> getRequestDetail(Long id) {
+        return requestRepository.findDetailedById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ArchivedMaintenanceRequest> getArchivedRequest(Long id) {
+        return archiveRepository.findDetailedById(id);
     }
     
-    public List<MaintenanceRequest> getRequestsByStatus(MaintenanceRequest.RequestStatus status) {
-        return requestRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public CursorPage<MaintenanceRequestSummary> getRequestsPage(String cursor, Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<MaintenanceRequestSummary> rows = requestRepository.findPage(
+                position.getCreatedAt(), position.getId(), pagination.probe(size));
+        return pagination.toPage(rows, size, MaintenanceRequestSummary::createdAt, MaintenanceRequestSummary::id);
     }
     
-    public List<MaintenanceRequest> getPendingApprovalRequests() {
+    @Transactional(readOnly = true)
+    public CursorPage<MaintenanceRequestSummary> getRequestsBySubmitter(User submitter, String cursor, Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<MaintenanceRequestSummary> rows = requestRepository.findPageBySubmitter(
+                submitter.getId(), position.getCreatedAt(), position.getId(), pagination.probe(size));
+        return pagination.toPage(rows, size, MaintenanceRequestSummary::createdAt, MaintenanceRequestSummary::id);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<MaintenanceRequestSummary> getRequestsByStatus(MaintenanceRequest.RequestStatus status,
+                                                             String cursor, Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<MaintenanceRequestSummary> rows = requestRepository.findPageByStatus(
+                status, position.getCreatedAt(), position.getId(), pagination.probe(size));
+        return pagination.toPage(rows, size, MaintenanceRequestSummary::createdAt, MaintenanceRequestSummary::id);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<MaintenanceRequestSummary> getFilteredRequests(RequestFilter filter, String cursor, Integer limit) {
+        Function<MaintenanceRequestSummary, LocalDateTime> sortKey = FILTER_SORT_KEYS.get(filter.getSort());
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + filter.getSort()
+                    + " (expected one of " + FILTER_SORT_KEYS.keySet() + ")");
+        }
+        Sort.Direction direction = Sort.Direction.fromString(filter.getDirection());
+        PageCursor position = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        
+        Specification<MaintenanceRequest> specification = MaintenanceRequestSpecifications.matching(filter)
+                .and(MaintenanceRequestSpecifications.after(filter.getSort(), direction, position));
+        List<MaintenanceRequestSummary> rows = requestRepository.findSummaries(
+                specification, filter.getSort(), direction, size + 1);
+        return pagination.toPage(rows, size, sortKey, MaintenanceRequestSummary::id);
+    }
+    
+    // Merges keyset pages of audit entries and approvals, each read through its request_id index.
+    @Transactional(readOnly = true)
+    public Optional<CursorPage<TimelineEntry>> getAuditTimeline(Long id, String cursor, Integer limit) {
+        TimelineCursor position = TimelineCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<TimelineEntry> audit;
+        List<TimelineEntry> approvals;
+        if (requestRepository.existsById(id)) {
+            audit = auditLogRepository.findTimelinePage(id, position.getOccurredAt(),
+                    position.idBoundFor(TimelineEntry.Kind.AUDIT), pagination.probe(size));
+            approvals = approvalRepository.findTimelinePage(id, position.getOccurredAt(),
+                    position.idBoundFor(TimelineEntry.Kind.APPROVAL), pagination.probe(size));
+        } else if (archiveRepository.existsById(id)) {
+            audit = archivedAuditLogRepository.findTimelinePage(id, position.getOccurredAt(),
+                    position.idBoundFor(TimelineEntry.Kind.AUDIT), pagination.probe(size));
+            approvals = archivedApprovalRepository.findTimelinePage(id, position.getOccurredAt(),
+                    position.idBoundFor(TimelineEntry.Kind.APPROVAL), pagination.probe(size));
+        } else {
+            return Optional.empty();
+        }
+        
+        List<TimelineEntry> merged = new ArrayList<>(audit.size() + approvals.size());
+        merged.addAll(audit);
+        merged.addAll(approvals);
+        merged.sort(TIMELINE_ORDER);
+        if (merged.size() <= size) {
+            return Optional.of(new CursorPage<>(merged, null));
+        }
+        List<TimelineEntry> items = merged.subList(0, size);
+        return Optional.of(new CursorPage<>(items, TimelineCursor.of(items.get(size - 1)).encode()));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MaintenanceRequestSummary> getPendingApprovalRequests() {
         return requestRepository.findPendingApprovalRequests();
     }
     
@@ -50,17 +192,23 @@ public class MaintenanceRequestService {
         request.setStatus(MaintenanceRequest.RequestStatus.DRAFT);
         
         MaintenanceRequest savedRequest = requestRepository.save(request);
+        counterService.recordCreated(savedRequest);
+        outboxService.publish(OutboxEvent.EventType.REQUEST_CREATED, savedRequest, null, submitter);
         
-        logAudit(savedRequest, submitter, AuditLog.ActionType.REQUEST_CREATED, 
+        auditService.record(savedRequest, submitter, AuditLog.ActionType.REQUEST_CREATED, 
                 "Request created: " + request.getTitle());
         
         return savedRequest;
     }
     
     public MaintenanceRequest updateRequest(Long id, MaintenanceRequest updatedRequest, User user) {
-        Optional<MaintenanceRequest> existingOpt = requestRepository.findById(id);
+        Optional<MaintenanceRequest> existingOpt = requestRepository.findDetailedById(id);
         if (existingOpt.isPresent()) {
             MaintenanceRequest existing = existingOpt.get();
+            if (updatedRequest.getVersion() != null && !updatedRequest.getVersion().equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(MaintenanceRequest.class, id);
+            }
+            RequestCounterKey counterKey = RequestCounterKey.of(existing);
             
             existing.setTitle(updatedRequest.getTitle());
             existing.setDescription(updatedRequest.getDescription());
@@ -73,10 +221,13 @@ public class MaintenanceRequestService {
             existing.setEnvironment(updatedRequest.getEnvironment());
             existing.setApplication(updatedRequest.getApplication());
             existing.setPeerReviewer(updatedRequest.getPeerReviewer());
+            existing.setUpdatedAt(LocalDateTime.now());
             
             MaintenanceRequest saved = requestRepository.save(existing);
+            counterService.recordChange(counterKey, saved);
+            outboxService.publish(OutboxEvent.EventType.REQUEST_UPDATED, saved, counterKey.getStatus(), user);
             
-            logAudit(saved, user, AuditLog.ActionType.REQUEST_UPDATED, 
+            auditService.record(saved, user, AuditLog.ActionType.REQUEST_UPDATED, 
                     "Request updated: " + existing.getTitle());
             
             return saved;
@@ -84,10 +235,17 @@ public class MaintenanceRequestService {
         throw new RuntimeException("Request not found with id: " + id);
     }
     
+    // Transitions load the payload and users with the request, since the returned entity is
+    // serialized after the transaction has closed.
     public MaintenanceRequest submitRequest(Long id, User submitter) {
-        Optional<MaintenanceRequest> requestOpt = requestRepository.findById(id);
+        Optional<MaintenanceRequest> requestOpt = requestRepository.findDetailedById(id);
         if (requestOpt.isPresent()) {
             MaintenanceRequest request = requestOpt.get();
+            RequestCounterKey counterKey = RequestCounterKey.of(request);
+            
+            if (request.getStatus() != MaintenanceRequest.RequestStatus.DRAFT) {
+                throw new RuntimeException("Only draft requests can be submitted");
+            }
             
             if (request.getType() == MaintenanceRequest.RequestType.SQL_FIX && 
                 request.getSqlStatement() != null && !request.getSqlStatement().trim().isEmpty()) {
@@ -106,8 +264,10 @@ public class MaintenanceRequestService {
             
             request.setStatus(MaintenanceRequest.RequestStatus.SUBMITTED);
             MaintenanceRequest saved = requestRepository.save(request);
+            counterService.recordChange(counterKey, saved);
+            outboxService.publish(OutboxEvent.EventType.REQUEST_SUBMITTED, saved, counterKey.getStatus(), submitter);
             
-            logAudit(saved, submitter, AuditLog.ActionType.REQUEST_SUBMITTED, 
+            auditService.record(saved, submitter, AuditLog.ActionType.REQUEST_SUBMITTED, 
                     "Request submitted for approval: " + request.getTitle());
             
             return saved;
@@ -120,9 +280,14 @@ public class MaintenanceRequestService {
     }
     
     public MaintenanceRequest executeRequest(Long id, User executor) {
-        Optional<MaintenanceRequest> requestOpt = requestRepository.findById(id);
+        if (!executionLeaseService.tryAcquire(id)) {
+            throw new RuntimeException("Request is already being executed by another node");
+        }
+        
+        Optional<MaintenanceRequest> requestOpt = requestRepository.findDetailedById(id);
         if (requestOpt.isPresent()) {
             MaintenanceRequest request = requestOpt.get();
+            RequestCounterKey counterKey = RequestCounterKey.of(request);
             
             if (request.getStatus() != MaintenanceRequest.RequestStatus.APPROVED) {
                 throw new RuntimeException("Request must be approved before execution");
@@ -130,8 +295,9 @@ public class MaintenanceRequestService {
             
             request.setStatus(MaintenanceRequest.RequestStatus.IN_PROGRESS);
             requestRepository.save(request);
+            outboxService.publish(OutboxEvent.EventType.EXECUTION_STARTED, request, counterKey.getStatus(), executor);
             
-            logAudit(request, executor, AuditLog.ActionType.EXECUTION_STARTED, 
+            auditService.record(request, executor, AuditLog.ActionType.EXECUTION_STARTED, 
                     "Request execution started");
             
             try {
@@ -141,8 +307,11 @@ public class MaintenanceRequestService {
                 request.setCompletedAt(LocalDateTime.now());
                 
                 MaintenanceRequest saved = requestRepository.save(request);
+                counterService.recordChange(counterKey, saved);
+                outboxService.publish(OutboxEvent.EventType.EXECUTION_COMPLETED, saved,
+                        MaintenanceRequest.RequestStatus.IN_PROGRESS, executor);
                 
-                logAudit(saved, executor, AuditLog.ActionType.EXECUTION_COMPLETED, 
+                auditService.record(saved, executor, AuditLog.ActionType.EXECUTION_COMPLETED, 
                         "Request execution completed successfully");
                 
                 return saved;
@@ -152,8 +321,11 @@ public class MaintenanceRequestService {
                 request.setExecutionResult("Execution failed: " + e.getMessage());
                 
                 MaintenanceRequest saved = requestRepository.save(request);
+                counterService.recordChange(counterKey, saved);
+                outboxService.publish(OutboxEvent.EventType.EXECUTION_FAILED, saved,
+                        MaintenanceRequest.RequestStatus.IN_PROGRESS, executor);
                 
-                logAudit(saved, executor, AuditLog.ActionType.EXECUTION_FAILED, 
+                auditService.record(saved, executor, AuditLog.ActionType.EXECUTION_FAILED, 
                         "Request execution failed: " + e.getMessage());
                 
                 throw new RuntimeException("Execution failed: " + e.getMessage());
@@ -202,22 +374,20 @@ public class MaintenanceRequestService {
         return formatted.toString();
     }
     
-    private void logAudit(MaintenanceRequest request, User user, AuditLog.ActionType action, String details) {
-        AuditLog auditLog = new AuditLog();
-        auditLog.setRequest(request);
-        auditLog.setUser(user);
-        auditLog.setAction(action);
-        auditLog.setDetails(details);
-        auditLog.setIpAddress("127.0.0.1");
-        auditLog.setUserAgent("MaintenanceApp/1.0");
-        auditLogRepository.save(auditLog);
-    }
     
     public Long getRequestCountByStatus(MaintenanceRequest.RequestStatus status) {
         return requestRepository.countByStatus(status);
     }
     
-    public Long getRequestCountByTypeThisMonth(MaintenanceRequest.RequestType type) {
-        return requestRepository.countByTypeThisMonth(type);
+    public long getTotalRequestCount() {
+        return counterService.getTotalRequests();
+    }
+    
+    public long getPendingApprovalCount() {
+        return counterService.getCountByStatus(MaintenanceRequest.RequestStatus.PENDING_APPROVAL);
+    }
+    
+    public RequestStats getRequestStats() {
+        return counterService.getRequestStats(YearMonth.now());
     }
 }
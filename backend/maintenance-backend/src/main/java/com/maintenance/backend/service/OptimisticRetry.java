@@ -0,0 +1,55 @@
+package com.maintenance.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional service call when it loses an optimistic version check. Each
+ * attempt is a fresh transaction that re-reads the rows and re-checks the transition's
+ * preconditions, so it is only used for operations that are safe to repeat; the last
+ * failure is rethrown for the caller to report as a conflict.
+ */
+@Component
+public class OptimisticRetry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+    
+    @Value("${maintenance.concurrency.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${maintenance.concurrency.backoff-ms:20}")
+    private long backoffMs;
+    
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Optimistic retry must start outside a transaction");
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Optimistic lock conflict on attempt {} of {}; retrying", attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+    
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
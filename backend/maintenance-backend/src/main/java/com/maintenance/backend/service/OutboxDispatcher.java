@@ -0,0 +1,336 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.OutboxStatus;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.OutboxOffset;
+import com.maintenance.backend.model.OutboxOffsetKey;
+import com.maintenance.backend.repository.OutboxEventRepository;
+import com.maintenance.backend.repository.OutboxOffsetRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers outbox events to every {@link OutboxSubscriber} in id order and in batches. Delivery
+ * is at-least-once: a subscriber's stored offset only moves past a batch after the subscriber
+ * returns, and a failing subscriber retries from its own offset without holding up the others.
+ * Offsets are kept per node, since subscribers hold node-local state. The dispatcher thread is
+ * woken as soon as a publishing transaction completes; the poll interval only matters for
+ * events committed by other nodes. All reads run in read-write transactions, so they go to the
+ * primary even when a replica is configured.
+ *
+ * <p>An id that is missing because another node's transaction has not committed yet does not
+ * hold delivery up for longer than the gap timeout: later events are delivered, and the missing
+ * id is re-checked on every batch and delivered out of order once it commits. Stored offsets
+ * never move past such an open gap, so a restart redelivers from before it. A gap is only given
+ * up on, as a rolled-back transaction, after the gap horizon.
+ *
+ * <p>A subscriber without a stored offset on this node is resynced and then delivered events from
+ * the head. Events are pruned once every stored offset has passed them and they are older than the
+ * retention period; offsets a node has stopped refreshing are dropped after their own retention.
+ */
+@Service
+public class OutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    private static final Comparator<OutboxEvent> BY_ID = Comparator.comparing(OutboxEvent::getId);
+    
+    @Autowired
+    private OutboxEventRepository eventRepository;
+    
+    @Autowired
+    private OutboxOffsetRepository offsetRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ExecutionLeaseService leaseService;
+    
+    @Autowired
+    private List<OutboxSubscriber> subscribers;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${maintenance.outbox.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${maintenance.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+    
+    @Value("${maintenance.outbox.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+    
+    @Value("${maintenance.outbox.gap-horizon-ms:900000}")
+    private long gapHorizonMs;
+    
+    @Value("${maintenance.outbox.retry-delay-ms:1000}")
+    private long retryDelayMs;
+    
+    @Value("${maintenance.outbox.retention:7d}")
+    private Duration retention;
+    
+    @Value("${maintenance.outbox.offset-retention:30d}")
+    private Duration offsetRetention;
+    
+    // Stored offsets, which stop short of the first open gap.
+    private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+    // Dispatcher-thread state: the last id delivered to each subscriber, and open gaps with their give-up time.
+    private final Map<String, Long> delivered = new HashMap<>();
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private final Map<String, Long> retryAfter = new HashMap<>();
+    // Subscribers may block on other threads, which consumes an unpark permit, so wake-ups are also flagged here.
+    private final AtomicBoolean signalled = new AtomicBoolean();
+    
+    private TransactionTemplate transactionTemplate;
+    private String nodeId;
+    private volatile int openGaps;
+    private volatile boolean running = true;
+    private volatile Thread dispatcher;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        nodeId = leaseService.getNodeId();
+        List<OutboxSubscriber> started = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            long head = eventRepository.findLastId();
+            for (OutboxSubscriber subscriber : subscribers) {
+                String name = subscriber.getSubscriberName();
+                OutboxOffsetKey key = new OutboxOffsetKey(nodeId, name);
+                OutboxOffset offset = offsetRepository.findById(key).orElse(null);
+                if (offset == null) {
+                    offset = offsetRepository.save(new OutboxOffset(key, head));
+                    started.add(subscriber);
+                }
+                offsets.put(name, offset.getLastEventId());
+                delivered.put(name, offset.getLastEventId());
+            }
+        });
+        // Events up to the head are not delivered to these, so they rebuild what they keep instead.
+        for (OutboxSubscriber subscriber : started) {
+            logger.info("Outbox subscriber {} has no stored offset on node {}; resyncing it before delivering "
+                    + "from event {}", subscriber.getSubscriberName(), nodeId, offsets.get(subscriber.getSubscriberName()));
+            subscriber.resync();
+        }
+        Thread thread = new Thread(this::dispatchLoop, "outbox-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+    
+    public void signal() {
+        signalled.set(true);
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    public OutboxStatus getStatus() {
+        return new OutboxStatus(eventRepository.findLastId(), nodeId, Map.copyOf(offsets), openGaps);
+    }
+    
+    @Scheduled(fixedDelayString = "${maintenance.outbox.prune-interval-ms:3600000}",
+               initialDelayString = "${maintenance.outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        int[] pruned = transactionTemplate.execute(tx -> {
+            // Offsets only move when events arrive, so a running node refreshes its own first.
+            offsetRepository.touch(nodeId, now);
+            int offsetsDropped = offsetRepository.deleteNotUpdatedSince(now.minus(offsetRetention));
+            Long upToId = offsetRepository.findMinLastEventId();
+            int eventsDropped = upToId == null ? 0 : eventRepository.deleteDeliveredBefore(upToId, now.minus(retention));
+            return new int[] {offsetsDropped, eventsDropped};
+        });
+        if (pruned[0] > 0 || pruned[1] > 0) {
+            logger.info("Pruned {} outbox events and {} offsets of departed nodes", pruned[1], pruned[0]);
+        }
+    }
+    
+    private void dispatchLoop() {
+        while (running) {
+            signalled.set(false);
+            boolean more;
+            try {
+                more = dispatchBatch();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to read the outbox; retrying", e);
+                more = false;
+            }
+            if (!more && !signalled.get()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            }
+        }
+    }
+    
+    private boolean dispatchBatch() {
+        if (delivered.isEmpty()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        expireGaps(now);
+        long from = Collections.min(delivered.values());
+        List<OutboxEvent> recovered = new ArrayList<>();
+        List<OutboxEvent> events = transactionTemplate.execute(tx -> {
+            if (!gaps.isEmpty()) {
+                recovered.addAll(eventRepository.findAllById(gaps.keySet()));
+                recovered.sort(BY_ID);
+            }
+            return deliverable(from, eventRepository.findByIdGreaterThanOrderByIdAsc(from,
+                    PageRequest.of(0, batchSize)), now);
+        });
+        
+        boolean progressed = false;
+        boolean recoveredEverywhere = true;
+        for (OutboxSubscriber subscriber : subscribers) {
+            String name = subscriber.getSubscriberName();
+            long mark = delivered.get(name);
+            List<OutboxEvent> pending = new ArrayList<>(events.size());
+            for (OutboxEvent event : recovered) {
+                if (event.getId() <= mark) {
+                    pending.add(event);
+                }
+            }
+            boolean hasRecovered = !pending.isEmpty();
+            for (OutboxEvent event : events) {
+                if (event.getId() > mark) {
+                    pending.add(event);
+                }
+            }
+            if (pending.isEmpty()) {
+                continue;
+            }
+            if (retryAfter.getOrDefault(name, 0L) > now) {
+                recoveredEverywhere &= !hasRecovered;
+                continue;
+            }
+            try {
+                subscriber.onEvents(pending);
+            } catch (RuntimeException e) {
+                logger.warn("Outbox subscriber {} failed on events {}-{}; retrying", name,
+                        pending.get(0).getId(), pending.get(pending.size() - 1).getId(), e);
+                retryAfter.put(name, now + retryDelayMs);
+                recoveredEverywhere &= !hasRecovered;
+                continue;
+            }
+            retryAfter.remove(name);
+            if (!events.isEmpty()) {
+                delivered.put(name, Math.max(mark, events.get(events.size() - 1).getId()));
+            }
+            progressed = true;
+        }
+        // A recovered event stays open until every subscriber has it; the others may get it again.
+        if (recoveredEverywhere) {
+            for (OutboxEvent event : recovered) {
+                gaps.remove(event.getId());
+                logger.info("Delivered outbox event {}, which committed after later events", event.getId());
+            }
+        }
+        openGaps = gaps.size();
+        storeOffsets();
+        outboxService.forgetRolledBack(Collections.min(offsets.values()));
+        return progressed && events.size() == batchSize;
+    }
+    
+    private void storeOffsets() {
+        long limit = gaps.isEmpty() ? Long.MAX_VALUE : gaps.firstKey() - 1;
+        for (Map.Entry<String, Long> entry : delivered.entrySet()) {
+            String name = entry.getKey();
+            long offset = Math.min(entry.getValue(), limit);
+            if (offset > offsets.get(name)) {
+                transactionTemplate.executeWithoutResult(tx -> offsetRepository.save(
+                        new OutboxOffset(new OutboxOffsetKey(nodeId, name), offset)));
+                offsets.put(name, offset);
+            }
+        }
+    }
+    
+    // Gaps left by local rollbacks are skipped at once and gaps held by open local transactions
+    // are waited for. Any other gap (another node's open transaction, or ids lost to a restart)
+    // is waited for until the event after it is older than the gap timeout, then left open.
+    private List<OutboxEvent> deliverable(long from, List<OutboxEvent> events, long now) {
+        LocalDateTime gapDeadline = LocalDateTime.now().minus(gapTimeoutMs, ChronoUnit.MILLIS);
+        long expected = from + 1;
+        int count = 0;
+        for (OutboxEvent event : events) {
+            long id = event.getId();
+            if (id > expected && !passGap(expected, id, event.getCreatedAt().isAfter(gapDeadline), now)) {
+                break;
+            }
+            expected = id + 1;
+            count++;
+        }
+        return events.subList(0, count);
+    }
+    
+    private boolean passGap(long fromId, long toId, boolean young, long now) {
+        List<Long> unknown = new ArrayList<>();
+        for (long id = fromId; id < toId; id++) {
+            if (gaps.containsKey(id) || outboxService.isRolledBack(id, id + 1)) {
+                continue;
+            }
+            if (outboxService.isInFlight(id, id + 1) || young) {
+                return false;
+            }
+            unknown.add(id);
+        }
+        if (!unknown.isEmpty()) {
+            logger.info("Outbox ids {}-{} have not committed within {} ms; delivering past them and re-checking "
+                    + "until they commit", unknown.get(0), unknown.get(unknown.size() - 1), gapTimeoutMs);
+            for (Long id : unknown) {
+                gaps.put(id, now + gapHorizonMs);
+            }
+        }
+        return true;
+    }
+    
+    private void expireGaps(long now) {
+        Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> gap = iterator.next();
+            if (gap.getValue() <= now) {
+                logger.warn("Outbox id {} has not committed within {} ms; treating it as rolled back",
+                        gap.getKey(), gapHorizonMs);
+                iterator.remove();
+            }
+        }
+    }
+}
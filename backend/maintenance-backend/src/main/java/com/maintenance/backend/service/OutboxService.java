@@ -0,0 +1,102 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Writes workflow transitions to the outbox in the transition's own transaction, so an event
+ * exists exactly when its transition commits. Outbox ids are assigned at insert but only become
+ * visible at commit; the ids of local transactions that are still open or were rolled back are
+ * tracked so the {@link OutboxDispatcher} can tell a gap that will fill from one that never will.
+ */
+@Service
+public class OutboxService {
+    
+    @Autowired
+    private OutboxEventRepository eventRepository;
+    
+    @Autowired
+    @Lazy
+    private OutboxDispatcher dispatcher;
+    
+    @Autowired
+    private ExecutionLeaseService leaseService;
+    
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Long> rolledBack = new ConcurrentSkipListSet<>();
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.EventType type, MaintenanceRequest request,
+                        MaintenanceRequest.RequestStatus fromStatus, User actor) {
+        save(newEvent(type, request.getId(), fromStatus, request.getStatus(), actor));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.EventType type, ApprovalWorkflow approval,
+                        MaintenanceRequest.RequestStatus fromStatus, User actor) {
+        MaintenanceRequest request = approval.getRequest();
+        OutboxEvent event = newEvent(type, request.getId(), fromStatus, request.getStatus(), actor);
+        event.setApprovalId(approval.getId());
+        event.setApproverId(approval.getApprover() == null ? null : approval.getApprover().getId());
+        save(event);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishArchived(Collection<Long> requestIds) {
+        for (Long requestId : requestIds) {
+            save(newEvent(OutboxEvent.EventType.REQUEST_ARCHIVED, requestId, null, null, null));
+        }
+    }
+    
+    boolean isInFlight(long fromId, long toId) {
+        return !inFlight.subSet(fromId, true, toId, false).isEmpty();
+    }
+    
+    boolean isRolledBack(long fromId, long toId) {
+        return rolledBack.subSet(fromId, true, toId, false).size() == toId - fromId;
+    }
+    
+    void forgetRolledBack(long upToId) {
+        rolledBack.headSet(upToId, true).clear();
+    }
+    
+    private OutboxEvent newEvent(OutboxEvent.EventType type, Long requestId, MaintenanceRequest.RequestStatus fromStatus,
+                                 MaintenanceRequest.RequestStatus toStatus, User actor) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setRequestId(requestId);
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setActorId(actor == null ? null : actor.getId());
+        event.setNodeId(leaseService.getNodeId());
+        return event;
+    }
+    
+    private void save(OutboxEvent event) {
+        Long id = eventRepository.save(event).getId();
+        inFlight.add(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    rolledBack.add(id);
+                }
+                inFlight.remove(id);
+                dispatcher.signal();
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.model.OutboxEvent;
+import java.util.List;
+
+/**
+ * Receives committed workflow events from the {@link OutboxDispatcher} in outbox order. A batch
+ * can be delivered again after a failure or restart, so handlers must be idempotent; throwing
+ * makes the dispatcher retry the same batch.
+ */
+public interface OutboxSubscriber {
+    
+    // Key of the subscriber's stored offset; changing it calls resync and delivers from the head.
+    String getSubscriberName();
+    
+    void onEvents(List<OutboxEvent> events);
+    
+    // Called before the first delivery when this node has no stored offset for the subscriber, as on
+    // a new node or after the offset was dropped; earlier events are not delivered, so state kept
+    // across restarts must be rebuilt from the tables.
+    void resync();
+}
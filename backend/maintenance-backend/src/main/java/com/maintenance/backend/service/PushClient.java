@@ -0,0 +1,104 @@
+package com.maintenance.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open push stream. Frames are pre-rendered bytes shared by every client they go to; they
+ * wait in a bounded queue until a sender thread writes them, so a slow connection only ever
+ * holds up itself.
+ */
+final class PushClient {
+    
+    private final String id;
+    private final Long userId;
+    private final boolean inbox;
+    private final ResponseBodyEmitter emitter;
+    private final BlockingQueue<byte[]> queue;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Set<Long> requestIds;
+    private volatile boolean resyncPending;
+    private volatile boolean closed;
+    
+    PushClient(String id, Long userId, boolean inbox, Set<Long> requestIds, ResponseBodyEmitter emitter,
+               int capacity) {
+        this.id = id;
+        this.userId = userId;
+        this.inbox = inbox;
+        this.requestIds = Set.copyOf(requestIds);
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+    
+    synchronized boolean offer(byte[] frame) {
+        return queue.offer(frame);
+    }
+    
+    // Replaces everything still queued with the resync frame; returns how many frames were dropped.
+    synchronized int resync(byte[] frame) {
+        int dropped = queue.size();
+        queue.clear();
+        queue.offer(frame);
+        resyncPending = true;
+        return dropped;
+    }
+    
+    byte[] poll() {
+        return queue.poll();
+    }
+    
+    boolean hasQueued() {
+        return !queue.isEmpty();
+    }
+    
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+    
+    void clearScheduled() {
+        scheduled.set(false);
+    }
+    
+    void resyncWritten() {
+        resyncPending = false;
+    }
+    
+    boolean isResyncPending() {
+        return resyncPending;
+    }
+    
+    void close() {
+        closed = true;
+    }
+    
+    boolean isClosed() {
+        return closed;
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    Long getUserId() {
+        return userId;
+    }
+    
+    boolean isInbox() {
+        return inbox;
+    }
+    
+    ResponseBodyEmitter getEmitter() {
+        return emitter;
+    }
+    
+    Set<Long> getRequestIds() {
+        return requestIds;
+    }
+    
+    void setRequestIds(Set<Long> requestIds) {
+        this.requestIds = Set.copyOf(requestIds);
+    }
+}
@@ -0,0 +1,308 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.RequestStats;
+import com.maintenance.backend.dto.StatusTypeCount;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.RequestCounter;
+import com.maintenance.backend.model.RequestCounterKey;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import com.maintenance.backend.repository.RequestCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps request counts per (status, type, environment, creation month) in the
+ * request_counters table. Changes are summed per transaction and written just
+ * before it commits, so the hot counter rows are locked only briefly and a
+ * request passing through several statuses in one transaction costs a single
+ * update per key. A missing row is first inserted empty in its own transaction,
+ * so concurrent first writers of a key never abort the caller. Committed changes
+ * are mirrored in memory so dashboards never have to count the requests table.
+ * Archived requests keep their counts, so the periodic reconciliation re-counts
+ * both the hot and archive tables with the counter rows locked, repairs drift
+ * that shows up on two runs in a row and reloads the mirror, which also picks
+ * up changes committed by other nodes. A reload reads the table without
+ * holding back commits. Keys that local transactions write meanwhile are
+ * re-read while the new mirror is swapped in, since the first read may or may
+ * not have seen those writes.
+ */
+@Service
+public class RequestCounterService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RequestCounterService.class);
+    
+    @Autowired
+    private RequestCounterRepository counterRepository;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate requiresNew;
+    
+    private volatile Map<RequestCounterKey, LongAdder> mirror = new ConcurrentHashMap<>();
+    
+    // Held for reading from a transaction's counter writes until it completes, for writing while a
+    // reload starts and while it swaps in the new mirror
+    private final ReadWriteLock mirrorLock = new ReentrantReadWriteLock();
+    
+    // Keys written by local transactions since the running reload started; null when none is running
+    private volatile Set<RequestCounterKey> writtenDuringReload;
+    
+    private Map<RequestCounterKey, Long> suspectedDrift = new HashMap<>();
+    
+    @PostConstruct
+    void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reloadMirror();
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(MaintenanceRequest request) {
+        apply(RequestCounterKey.of(request), 1);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(RequestCounterKey before, MaintenanceRequest request) {
+        RequestCounterKey after = RequestCounterKey.of(request);
+        if (!after.equals(before)) {
+            apply(before, -1);
+            apply(after, 1);
+        }
+    }
+    
+    public long getTotalRequests() {
+        long total = 0;
+        for (LongAdder count : mirror.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+    
+    public long getCountByStatus(MaintenanceRequest.RequestStatus status) {
+        long total = 0;
+        for (Map.Entry<RequestCounterKey, LongAdder> entry : mirror.entrySet()) {
+            if (entry.getKey().getStatus() == status) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+    
+    public RequestStats getRequestStats(YearMonth month) {
+        String bucket = RequestCounterKey.monthOf(month);
+        List<StatusTypeCount> monthCounts = new ArrayList<>();
+        for (Map.Entry<RequestCounterKey, LongAdder> entry : mirror.entrySet()) {
+            RequestCounterKey key = entry.getKey();
+            if (key.getMonth().equals(bucket)) {
+                monthCounts.add(new StatusTypeCount(key.getStatus(), key.getType(), entry.getValue().sum()));
+            }
+        }
+        return new RequestStats(getCountByStatus(MaintenanceRequest.RequestStatus.PENDING_APPROVAL), monthCounts);
+    }
+    
+    @Scheduled(fixedDelayString = "${maintenance.counters.reconcile-interval-ms:300000}",
+               initialDelayString = "${maintenance.counters.reconcile-interval-ms:300000}")
+    @Transactional
+    public void reconcile() {
+        // Locking the counters first holds back status changes until both tables are counted.
+        // Rows archived or counters first created meanwhile can still look like drift, so drift
+        // is only repaired once a second run finds the same amount.
+        Map<RequestCounterKey, Long> stored = new HashMap<>();
+        for (RequestCounter counter : counterRepository.findAllForUpdate()) {
+            stored.put(counter.getKey(), counter.getRequestCount());
+        }
+        
+        Map<RequestCounterKey, Long> actual = new HashMap<>();
+        addCounts(actual, counterRepository.countRequestsByKey());
+        addCounts(actual, archiveRepository.countRequestsByKey());
+        
+        Set<RequestCounterKey> keys = new HashSet<>(actual.keySet());
+        keys.addAll(stored.keySet());
+        Map<RequestCounterKey, Long> found = new HashMap<>();
+        int repaired = 0;
+        for (RequestCounterKey key : keys) {
+            long drift = actual.getOrDefault(key, 0L) - stored.getOrDefault(key, 0L);
+            if (drift == 0) {
+                continue;
+            }
+            if (suspectedDrift.getOrDefault(key, 0L) == drift) {
+                logger.warn("Request counter {} is off by {}; repairing", key, drift);
+                increment(key, drift);
+                repaired++;
+            } else {
+                logger.debug("Request counter {} looks off by {}; re-checking on the next run", key, drift);
+                found.put(key, drift);
+            }
+        }
+        suspectedDrift = found;
+        
+        if (repaired > 0) {
+            logger.info("Reconciled {} request counters", repaired);
+        }
+        afterCommit(this::reloadMirror);
+    }
+    
+    private static void addCounts(Map<RequestCounterKey, Long> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            MaintenanceRequest.Environment environment = (MaintenanceRequest.Environment) row[2];
+            RequestCounterKey key = new RequestCounterKey(
+                    (MaintenanceRequest.RequestStatus) row[0],
+                    (MaintenanceRequest.RequestType) row[1],
+                    environment == null ? RequestCounterKey.UNSPECIFIED_ENVIRONMENT : environment.name(),
+                    RequestCounterKey.monthOf(YearMonth.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue())));
+            counts.merge(key, ((Number) row[5]).longValue(), Long::sum);
+        }
+    }
+    
+    // Only waits for transactions already between writing their counters and mirroring them; the
+    // full read runs unlocked and only the keys written meanwhile are read again under the lock.
+    private synchronized void reloadMirror() {
+        Set<RequestCounterKey> written = ConcurrentHashMap.newKeySet();
+        mirrorLock.writeLock().lock();
+        try {
+            writtenDuringReload = written;
+        } finally {
+            mirrorLock.writeLock().unlock();
+        }
+        
+        // Own transactions, so rows the caller's persistence context already holds are read afresh
+        Map<RequestCounterKey, LongAdder> loaded = new ConcurrentHashMap<>();
+        try {
+            requiresNew.executeWithoutResult(tx -> {
+                for (RequestCounter counter : counterRepository.findAll()) {
+                    loaded.put(counter.getKey(), adder(counter.getRequestCount()));
+                }
+            });
+        } catch (RuntimeException e) {
+            writtenDuringReload = null;
+            throw e;
+        }
+        
+        mirrorLock.writeLock().lock();
+        try {
+            if (!written.isEmpty()) {
+                requiresNew.executeWithoutResult(tx -> {
+                    for (RequestCounterKey key : written) {
+                        loaded.put(key, adder(counterRepository.findById(key)
+                                .map(RequestCounter::getRequestCount).orElse(0L)));
+                    }
+                });
+            }
+            mirror = loaded;
+        } finally {
+            writtenDuringReload = null;
+            mirrorLock.writeLock().unlock();
+        }
+    }
+    
+    private static LongAdder adder(long value) {
+        LongAdder count = new LongAdder();
+        count.add(value);
+        return count;
+    }
+    
+    private void apply(RequestCounterKey key, long delta) {
+        pendingDeltas().merge(key, delta, Long::sum);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<RequestCounterKey, Long> pendingDeltas() {
+        Map<RequestCounterKey, Long> pending =
+                (Map<RequestCounterKey, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        
+        Map<RequestCounterKey, Long> deltas = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // A reload must not read these writes and then see them mirrored a second time
+                mirrorLock.readLock().lock();
+                locked = true;
+                Set<RequestCounterKey> written = writtenDuringReload;
+                if (written != null) {
+                    written.addAll(deltas.keySet());
+                }
+                deltas.forEach((key, delta) -> {
+                    if (delta != 0) {
+                        increment(key, delta);
+                    }
+                });
+            }
+            
+            @Override
+            public void afterCommit() {
+                deltas.forEach((key, delta) -> mirror.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(RequestCounterService.this);
+                if (locked) {
+                    mirrorLock.readLock().unlock();
+                }
+            }
+        });
+        return deltas;
+    }
+    
+    private void increment(RequestCounterKey key, long delta) {
+        if (updateCount(key, delta) == 0) {
+            insertEmpty(key);
+            updateCount(key, delta);
+        }
+    }
+    
+    private int updateCount(RequestCounterKey key, long delta) {
+        return counterRepository.increment(key.getStatus(), key.getType(), key.getEnvironment(), key.getMonth(), delta);
+    }
+    
+    private void insertEmpty(RequestCounterKey key) {
+        try {
+            requiresNew.executeWithoutResult(tx -> counterRepository.insertEmpty(key.getStatus().name(),
+                    key.getType().name(), key.getEnvironment(), key.getMonth()));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Request counter {} was created concurrently", key);
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
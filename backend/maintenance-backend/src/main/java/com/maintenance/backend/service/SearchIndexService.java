@@ -0,0 +1,415 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.SearchHit;
+import com.maintenance.backend.dto.SearchIndexStatus;
+import com.maintenance.backend.model.ArchivedMaintenanceRequest;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene index over request titles, descriptions, applications, SQL and the tables
+ * that SQL touches. All writes go through a single indexer thread: requests are reindexed by
+ * id as their workflow events arrive from the outbox, and a bulk rebuild replaces the whole
+ * index from the hot and archive tables. Archived requests keep their documents, so search
+ * covers both. A batch of events is committed to the index before it is acknowledged, so the
+ * outbox redelivers anything a crash kept off the disk.
+ */
+@Service
+public class SearchIndexService implements OutboxSubscriber {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+    
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String APPLICATION = "application";
+    private static final String SQL = "sql";
+    private static final String TABLES = "tables";
+    private static final String TYPE = "type";
+    private static final String STATUS = "status";
+    private static final String ENVIRONMENT = "environment";
+    private static final String CREATED_AT = "createdAt";
+    
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            TITLE, 3.0f, TABLES, 2.5f, APPLICATION, 2.0f, DESCRIPTION, 1.0f, SQL, 0.5f);
+    
+    private static final int REBUILD_BATCH_SIZE = 500;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
+    @Autowired
+    private SqlValidationService sqlValidationService;
+    
+    @Autowired
+    private KeysetPagination pagination;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Blank keeps the index in memory; it is rebuilt from the database on every start.
+    @Value("${maintenance.search.index-dir:}")
+    private String indexDir;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private TransactionTemplate transactionTemplate;
+    private CompletableFuture<Integer> lastRebuild = CompletableFuture.completedFuture(0);
+    
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+        // Reads run on the primary so a reindex right after commit sees the committed row.
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(10, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+    
+    @Override
+    public String getSubscriberName() {
+        return "search-index";
+    }
+    
+    // The index directory may outlive the offset, so it is rebuilt rather than trusted.
+    @Override
+    public void resync() {
+        rebuild();
+    }
+    
+    // Waits for the indexer thread so the outbox offset only advances once the documents are committed.
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        Set<Long> requestIds = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            requestIds.add(event.getRequestId());
+        }
+        try {
+            indexer.submit(() -> {
+                indexRequests(requestIds);
+                writer.commit();
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing requests " + requestIds, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to index requests " + requestIds, e.getCause());
+        }
+    }
+    
+    // A rebuild requested while one is still running joins it instead of queueing another.
+    public synchronized CompletableFuture<Integer> rebuild() {
+        if (!lastRebuild.isDone()) {
+            return lastRebuild;
+        }
+        lastRebuild = CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuildIndex();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, indexer);
+        lastRebuild.exceptionally(e -> {
+            logger.warn("Failed to rebuild the search index", e);
+            return null;
+        });
+        return lastRebuild;
+    }
+    
+    public synchronized SearchIndexStatus getStatus() {
+        return new SearchIndexStatus(writer.getDocStats().numDocs, !lastRebuild.isDone());
+    }
+    
+    public CursorPage<SearchHit> search(String text, LocalDate from, LocalDate to, String cursor, Integer limit) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        int offset = decodeOffset(cursor);
+        int size = pagination.resolveLimit(limit);
+        Query query = buildQuery(text, from, to);
+    
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, offset + size + 1);
+                List<SearchHit> hits = new ArrayList<>(size);
+                ScoreDoc[] scoreDocs = top.scoreDocs;
+                for (int i = offset; i < scoreDocs.length && hits.size() < size; i++) {
+                    hits.add(toHit(searcher.storedFields().document(scoreDocs[i].doc), scoreDocs[i].score));
+                }
+                String nextCursor = scoreDocs.length > offset + size ? String.valueOf(offset + size) : null;
+                return new CursorPage<>(hits, nextCursor);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Query buildQuery(String text, LocalDate from, LocalDate to) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                FIELD_BOOSTS.keySet().toArray(new String[0]), analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query textQuery;
+        try {
+            textQuery = parser.parse(text);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage());
+        }
+        if (from == null && to == null) {
+            return textQuery;
+        }
+        long lower = from == null ? Long.MIN_VALUE : toEpochMillis(from.atStartOfDay());
+        long upper = to == null ? Long.MAX_VALUE : toEpochMillis(to.plusDays(1).atStartOfDay()) - 1;
+        return new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(LongPoint.newRangeQuery(CREATED_AT, lower, upper), BooleanClause.Occur.FILTER)
+                .build();
+    }
+    
+    // One read transaction and one searcher refresh per batch of events.
+    private void indexRequests(Set<Long> requestIds) throws IOException {
+        Map<Long, Document> documents = transactionTemplate.execute(tx -> {
+            Map<Long, Document> loaded = new HashMap<>();
+            for (MaintenanceRequest request : requestRepository.findIndexBatchByIds(requestIds)) {
+                loaded.put(request.getId(), toDocument(request));
+            }
+            // Requests missing from the hot table were archived, or deleted if not there either.
+            List<Long> missing = requestIds.stream().filter(id -> !loaded.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                for (ArchivedMaintenanceRequest archived : archiveRepository.findAllById(missing)) {
+                    loaded.put(archived.getId(), toDocument(archived));
+                }
+            }
+            return loaded;
+        });
+        for (Long requestId : requestIds) {
+            Document document = documents.get(requestId);
+            if (document == null) {
+                writer.deleteDocuments(new Term(ID, requestId.toString()));
+            } else {
+                writer.updateDocument(new Term(ID, requestId.toString()), document);
+            }
+        }
+        searcherManager.maybeRefresh();
+    }
+    
+    private int rebuildIndex() throws IOException {
+        long started = System.currentTimeMillis();
+        writer.deleteAll();
+        int indexed = 0;
+    
+        Long lastId = 0L;
+        while (true) {
+            Long afterId = lastId;
+            List<Document> batch = transactionTemplate.execute(tx -> requestRepository
+                    .findIndexBatch(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE))
+                    .stream().map(this::toDocument).toList());
+            for (Document document : batch) {
+                writer.addDocument(document);
+            }
+            indexed += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = Long.valueOf(batch.get(batch.size() - 1).get(ID));
+        }
+    
+        lastId = 0L;
+        while (true) {
+            Long afterId = lastId;
+            List<Document> batch = transactionTemplate.execute(tx -> archiveRepository
+                    .findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE))
+                    .stream().map(this::toDocument).toList());
+            for (Document document : batch) {
+                writer.updateDocument(new Term(ID, document.get(ID)), document);
+            }
+            indexed += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = Long.valueOf(batch.get(batch.size() - 1).get(ID));
+        }
+    
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Rebuilt search index with {} requests in {} ms", indexed, System.currentTimeMillis() - started);
+        return indexed;
+    }
+    
+    private Document toDocument(MaintenanceRequest request) {
+        return toDocument(request.getId(), request.getTitle(), request.getDescription(), request.getApplication(),
+                request.getSqlStatement(), name(request.getType()), name(request.getStatus()),
+                name(request.getEnvironment()), request.getCreatedAt());
+    }
+    
+    private Document toDocument(ArchivedMaintenanceRequest request) {
+        return toDocument(request.getId(), request.getTitle(), request.getDescription(), request.getApplication(),
+                request.getSqlStatement(), name(request.getType()), name(request.getStatus()),
+                name(request.getEnvironment()), request.getCreatedAt());
+    }
+    
+    private Document toDocument(Long id, String title, String description, String application, String sql,
+                                String type, String status, String environment, LocalDateTime createdAt) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        addText(document, TITLE, title, Field.Store.YES);
+        addText(document, DESCRIPTION, description, Field.Store.NO);
+        addText(document, APPLICATION, application, Field.Store.YES);
+        addText(document, SQL, sql, Field.Store.NO);
+        addText(document, TABLES, String.join(" ", tableTerms(sql)), Field.Store.NO);
+        addStored(document, TYPE, type);
+        addStored(document, STATUS, status);
+        addStored(document, ENVIRONMENT, environment);
+        if (createdAt != null) {
+            long millis = toEpochMillis(createdAt);
+            document.add(new LongPoint(CREATED_AT, millis));
+            document.add(new StoredField(CREATED_AT, millis));
+        }
+        return document;
+    }
+    
+    // Qualified names are indexed whole and by their last segment so "accounts" matches "billing.accounts".
+    private Set<String> tableTerms(String sql) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String table : sqlValidationService.extractTableNames(sql)) {
+            terms.add(table);
+            int dot = table.lastIndexOf('.');
+            if (dot >= 0) {
+                terms.add(table.substring(dot + 1));
+            }
+        }
+        return terms;
+    }
+    
+    private SearchHit toHit(Document document, float score) {
+        IndexableField createdAt = document.getField(CREATED_AT);
+        return new SearchHit(Long.valueOf(document.get(ID)), document.get(TITLE), document.get(TYPE),
+                document.get(STATUS), document.get(APPLICATION), document.get(ENVIRONMENT),
+                createdAt == null ? null : LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(createdAt.numericValue().longValue()), ZoneId.systemDefault()),
+                score);
+    }
+    
+    private static void addText(Document document, String field, String value, Field.Store store) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, store));
+        }
+    }
+    
+    private static void addStored(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new StoredField(field, value));
+        }
+    }
+    
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
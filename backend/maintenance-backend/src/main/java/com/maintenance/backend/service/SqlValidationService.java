@@ -7,10 +7,13 @@ import net.sf.jsqlparser.statement.delete.Delete;
 import net.sf.jsqlparser.statement.insert.Insert;
 import net.sf.jsqlparser.statement.select.Select;
 import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.util.TablesNamesFinder;
 import org.springframework.stereotype.Service;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 @Service
 public class SqlValidationService {
@@ -38,6 +41,17 @@ public class SqlValidationService {
         return result;
     }
     
+    public Set<String> extractTableNames(String sqlStatement) {
+        if (sqlStatement == null || sqlStatement.isBlank()) {
+            return Collections.emptySet();
+        }
+        try {
+            return new TablesNamesFinder().getTables(CCJSqlParserUtil.parse(sqlStatement));
+        } catch (JSQLParserException | UnsupportedOperationException e) {
+            return Collections.emptySet();
+        }
+    }
+    
     private void analyzeStatement(Statement statement, SqlValidationResult result) {
         if (statement instanceof Delete) {
             analyzeDeleteStatement((Delete) statement, result);
@@ -1,5 +1,7 @@
 package com.maintenance.backend.service;
 
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.PageCursor;
 import com.maintenance.backend.model.User;
 import com.maintenance.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +21,21 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private KeysetPagination pagination;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<User> getUsersPage(String cursor, Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = pagination.resolveLimit(limit);
+        List<User> rows = userRepository.findPage(position.getCreatedAt(), position.getId(), pagination.probe(size));
+        return pagination.toPage(rows, size, User::getCreatedAt, User::getId);
+    }
+    
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -31,6 +44,7 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
     }
@@ -79,17 +93,29 @@ public class UserService {
         return false;
     }
     
+    @Transactional(readOnly = true)
+    public long getUserCount() {
+        return userRepository.count();
+    }
+    
+    @Transactional(readOnly = true)
+    public long getActiveUserCount() {
+        return userRepository.countByStatus(User.UserStatus.ACTIVE);
+    }
+    
+    @Transactional(readOnly = true)
     public List<User> getActiveUsers() {
         return userRepository.findByStatus(User.UserStatus.ACTIVE);
     }
     
+    @Transactional(readOnly = true)
     public List<User> getManagers() {
         return userRepository.findByRole(User.Role.MANAGER);
     }
     
+    @Transactional(readOnly = true)
     public List<User> getDevelopers() {
-        List<User> developers = userRepository.findByRole(User.Role.DEVELOPER);
-        developers.addAll(userRepository.findByRole(User.Role.SENIOR_DEVELOPER));
-        return developers;
+        return userRepository.findByRoleInOrderByRoleAscIdAsc(
+                List.of(User.Role.DEVELOPER, User.Role.SENIOR_DEVELOPER));
     }
 }
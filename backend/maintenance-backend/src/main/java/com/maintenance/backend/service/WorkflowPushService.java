@@ -0,0 +1,316 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.PushEvent;
+import com.maintenance.backend.dto.PushStatus;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes committed workflow events to connected clients as server-sent events. A client follows
+ * its own approval inbox and any number of request ids. Each outbox event is rendered into an
+ * SSE frame once and the same bytes are queued for every subscriber, found through per-request
+ * and per-approver indexes rather than by scanning all clients. Sender threads write the queues
+ * out, so the outbox dispatcher never blocks on a socket. A client whose queue fills up loses its
+ * queued frames and gets a single {@code resync} event telling it to reload over REST; one that
+ * fills up again before that frame is written is disconnected.
+ */
+@Service
+public class WorkflowPushService implements OutboxSubscriber {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowPushService.class);
+    
+    private static final Set<OutboxEvent.EventType> INBOX_EVENTS = EnumSet.of(
+            OutboxEvent.EventType.APPROVAL_ASSIGNED,
+            OutboxEvent.EventType.APPROVAL_DECIDED);
+    
+    private static final byte[] HEARTBEAT_FRAME = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RESYNC_FRAME = "event: resync\ndata: {}\n\n".getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${maintenance.push.max-clients:1000}")
+    private int maxClients;
+    
+    @Value("${maintenance.push.max-requests-per-client:100}")
+    private int maxRequestsPerClient;
+    
+    @Value("${maintenance.push.queue-capacity:256}")
+    private int queueCapacity;
+    
+    @Value("${maintenance.push.sender-threads:4}")
+    private int senderThreads;
+    
+    @Value("${maintenance.push.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${maintenance.push.reconnect-delay-ms:3000}")
+    private long reconnectDelayMs;
+    
+    private final Map<String, PushClient> clients = new ConcurrentHashMap<>();
+    private final Map<Long, Set<PushClient>> requestSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<PushClient>> inboxSubscribers = new ConcurrentHashMap<>();
+    
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder framesDropped = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    
+    private ExecutorService senders;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "push-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void stop() {
+        for (PushClient client : clients.values()) {
+            unregister(client);
+            client.getEmitter().complete();
+        }
+        senders.shutdownNow();
+    }
+    
+    public ResponseBodyEmitter connect(User user, Set<Long> requestIds, boolean inbox) {
+        checkRequestCount(requestIds);
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Too many open push connections");
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        PushClient client = new PushClient(UUID.randomUUID().toString(), user.getId(), inbox, requestIds,
+                emitter, queueCapacity);
+        emitter.onCompletion(() -> unregister(client));
+        emitter.onTimeout(() -> unregister(client));
+        emitter.onError(error -> unregister(client));
+    
+        clients.put(client.getId(), client);
+        for (Long requestId : client.getRequestIds()) {
+            subscribe(requestSubscribers, requestId, client);
+        }
+        if (inbox) {
+            subscribe(inboxSubscribers, user.getId(), client);
+        }
+        // Tells the client its id, which it needs to change its request subscriptions later.
+        client.offer(render(null, "subscribed", Map.of("clientId", client.getId(),
+                "requestIds", client.getRequestIds(), "inbox", inbox)));
+        schedule(client);
+        return emitter;
+    }
+    
+    // Replaces the request ids a client follows; only the user who opened the stream may change it.
+    public Optional<Set<Long>> updateRequests(String clientId, User user, Set<Long> requestIds) {
+        checkRequestCount(requestIds);
+        PushClient client = clients.get(clientId);
+        if (client == null || !client.getUserId().equals(user.getId())) {
+            return Optional.empty();
+        }
+        synchronized (client) {
+            if (clients.get(clientId) != client) {
+                return Optional.empty();
+            }
+            Set<Long> previous = client.getRequestIds();
+            client.setRequestIds(requestIds);
+            for (Long requestId : previous) {
+                if (!requestIds.contains(requestId)) {
+                    unsubscribe(requestSubscribers, requestId, client);
+                }
+            }
+            for (Long requestId : requestIds) {
+                subscribe(requestSubscribers, requestId, client);
+            }
+        }
+        return Optional.of(client.getRequestIds());
+    }
+    
+    public PushStatus getStatus() {
+        return new PushStatus(clients.size(), framesSent.sum(), framesDropped.sum(), resyncs.sum(),
+                disconnects.sum());
+    }
+    
+    @Override
+    public String getSubscriberName() {
+        return "push";
+    }
+    
+    // Only queues frames, so the dispatcher moves on regardless of how fast clients read.
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        for (OutboxEvent event : events) {
+            Set<PushClient> targets = new HashSet<>(requestSubscribers.getOrDefault(event.getRequestId(), Set.of()));
+            if (event.getApproverId() != null && INBOX_EVENTS.contains(event.getEventType())) {
+                targets.addAll(inboxSubscribers.getOrDefault(event.getApproverId(), Set.of()));
+            }
+            if (targets.isEmpty()) {
+                continue;
+            }
+            byte[] frame = render(event.getId(), event.getEventType().name(), PushEvent.of(event));
+            if (frame == null) {
+                continue;
+            }
+            for (PushClient client : targets) {
+                enqueue(client, frame);
+            }
+        }
+    }
+    
+    // Clients only connect once the node is up, so there is nothing from before to catch up on.
+    @Override
+    public void resync() {
+    }
+    
+    // Keeps idle connections open through proxies and finds the ones whose client has gone.
+    @Scheduled(fixedDelayString = "${maintenance.push.heartbeat-interval-ms:15000}")
+    void heartbeat() {
+        for (PushClient client : clients.values()) {
+            if (client.offer(HEARTBEAT_FRAME)) {
+                schedule(client);
+            }
+        }
+    }
+    
+    private void enqueue(PushClient client, byte[] frame) {
+        if (client.offer(frame)) {
+            schedule(client);
+            return;
+        }
+        if (client.isResyncPending()) {
+            logger.info("Disconnecting push client {} of user {}: it is not reading its stream",
+                    client.getId(), client.getUserId());
+            framesDropped.increment();
+            disconnect(client);
+            return;
+        }
+        framesDropped.add(client.resync(RESYNC_FRAME) + 1);
+        resyncs.increment();
+        schedule(client);
+    }
+    
+    private void schedule(PushClient client) {
+        if (client.markScheduled()) {
+            senders.execute(() -> drain(client));
+        }
+    }
+    
+    private void drain(PushClient client) {
+        ResponseBodyEmitter emitter = client.getEmitter();
+        try {
+            byte[] frame;
+            while (!client.isClosed() && (frame = client.poll()) != null) {
+                emitter.send(frame, MediaType.TEXT_EVENT_STREAM);
+                framesSent.increment();
+                if (frame == RESYNC_FRAME) {
+                    client.resyncWritten();
+                }
+            }
+            if (client.isClosed()) {
+                emitter.complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The connection is gone; the container also reports it through the emitter callbacks.
+            unregister(client);
+            return;
+        } finally {
+            client.clearScheduled();
+        }
+        if (client.hasQueued()) {
+            schedule(client);
+        }
+    }
+    
+    // Completes the stream from a sender thread, after any write still in progress on it.
+    private void disconnect(PushClient client) {
+        unregister(client);
+        client.close();
+        disconnects.increment();
+        schedule(client);
+    }
+    
+    private void unregister(PushClient client) {
+        synchronized (client) {
+            if (!clients.remove(client.getId(), client)) {
+                return;
+            }
+            for (Long requestId : client.getRequestIds()) {
+                unsubscribe(requestSubscribers, requestId, client);
+            }
+            if (client.isInbox()) {
+                unsubscribe(inboxSubscribers, client.getUserId(), client);
+            }
+        }
+    }
+    
+    private static void subscribe(Map<Long, Set<PushClient>> index, Long key, PushClient client) {
+        index.compute(key, (k, subscribers) -> {
+            Set<PushClient> updated = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            updated.add(client);
+            return updated;
+        });
+    }
+    
+    private static void unsubscribe(Map<Long, Set<PushClient>> index, Long key, PushClient client) {
+        index.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(client);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+    
+    private void checkRequestCount(Set<Long> requestIds) {
+        if (requestIds.size() > maxRequestsPerClient) {
+            throw new IllegalArgumentException("At most " + maxRequestsPerClient + " requests can be followed at once");
+        }
+    }
+    
+    private byte[] render(Long id, String name, Object payload) {
+        try {
+            StringBuilder frame = new StringBuilder();
+            if (id == null) {
+                frame.append("retry: ").append(reconnectDelayMs).append('\n');
+            } else {
+                frame.append("id: ").append(id).append('\n');
+            }
+            frame.append("event: ").append(name).append('\n');
+            frame.append("data: ").append(objectMapper.writeValueAsString(payload)).append("\n\n");
+            return frame.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            // Throwing would make the dispatcher redeliver the batch to clients that already have it.
+            logger.error("Failed to render push event {}", id, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Outbox subscribers keep their state in each node's memory or local files, so every node tracks
+-- its own offsets. Offsets shared by subscriber name alone would let one node advance another's.
+-- Existing rows cannot be attributed to a node; each node starts at the head, as a new subscriber does.
+
+DROP TABLE outbox_offsets;
+
+CREATE TABLE outbox_offsets (
+    node_id VARCHAR(255) NOT NULL,
+    subscriber VARCHAR(100) NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_outbox_offsets PRIMARY KEY (node_id, subscriber)
+);
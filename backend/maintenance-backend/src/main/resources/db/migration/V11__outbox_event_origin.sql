@@ -0,0 +1,4 @@
+-- The node whose transaction wrote each outbox event, so a subscriber can tell the effects it already
+-- applied locally at commit from those made on other nodes.
+
+ALTER TABLE workflow_outbox ADD COLUMN node_id VARCHAR(255);
@@ -0,0 +1,13 @@
+-- Each node appends to the chain in its own segment directory, numbered from its own sequence,
+-- so each node anchors its own head. A row is created by the node's first stored batch.
+-- The single global row cannot be attributed to a node and is dropped with the old table.
+
+DROP TABLE audit_chain_head;
+
+CREATE TABLE audit_chain_head (
+    node_id VARCHAR(255) NOT NULL,
+    last_sequence BIGINT NOT NULL,
+    last_hash VARCHAR(64),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_audit_chain_head PRIMARY KEY (node_id)
+);
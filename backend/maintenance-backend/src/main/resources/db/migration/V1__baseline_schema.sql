@@ -0,0 +1,87 @@
+-- Baseline schema, equivalent to what Hibernate generated with ddl-auto=create-drop.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    status VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE maintenance_request_payloads (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    description TEXT,
+    business_justification TEXT,
+    rollback_plan TEXT,
+    sql_statement TEXT,
+    config_content TEXT,
+    job_details TEXT,
+    validation_result TEXT,
+    execution_result TEXT,
+    CONSTRAINT pk_maintenance_request_payloads PRIMARY KEY (id)
+);
+
+CREATE TABLE maintenance_requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255),
+    type VARCHAR(255),
+    status VARCHAR(255),
+    priority VARCHAR(255),
+    application VARCHAR(255),
+    environment VARCHAR(255),
+    payload_id BIGINT,
+    affected_rows INTEGER,
+    execution_time FLOAT(53),
+    submitter_id BIGINT,
+    peer_reviewer_id BIGINT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    CONSTRAINT pk_maintenance_requests PRIMARY KEY (id),
+    CONSTRAINT uk_maintenance_requests_payload UNIQUE (payload_id),
+    CONSTRAINT fk_maintenance_requests_payload FOREIGN KEY (payload_id) REFERENCES maintenance_request_payloads (id),
+    CONSTRAINT fk_maintenance_requests_submitter FOREIGN KEY (submitter_id) REFERENCES users (id),
+    CONSTRAINT fk_maintenance_requests_peer_reviewer FOREIGN KEY (peer_reviewer_id) REFERENCES users (id)
+);
+
+CREATE TABLE approval_workflows (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    request_id BIGINT,
+    approver_id BIGINT,
+    type VARCHAR(255),
+    status VARCHAR(255),
+    comments TEXT,
+    created_at TIMESTAMP(6),
+    approved_at TIMESTAMP(6),
+    CONSTRAINT pk_approval_workflows PRIMARY KEY (id),
+    CONSTRAINT fk_approval_workflows_request FOREIGN KEY (request_id) REFERENCES maintenance_requests (id),
+    CONSTRAINT fk_approval_workflows_approver FOREIGN KEY (approver_id) REFERENCES users (id)
+);
+
+CREATE TABLE audit_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    request_id BIGINT,
+    user_id BIGINT,
+    action VARCHAR(255),
+    details TEXT,
+    ip_address VARCHAR(255),
+    user_agent VARCHAR(255),
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_audit_logs PRIMARY KEY (id),
+    CONSTRAINT fk_audit_logs_request FOREIGN KEY (request_id) REFERENCES maintenance_requests (id),
+    CONSTRAINT fk_audit_logs_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE execution_claims (
+    request_id BIGINT NOT NULL,
+    owner_node VARCHAR(100) NOT NULL,
+    claimed_at TIMESTAMP(6),
+    heartbeat_at TIMESTAMP(6),
+    lease_expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_execution_claims PRIMARY KEY (request_id)
+);
@@ -0,0 +1,21 @@
+-- Composite indexes backing the repository queries on the request, approval and audit paths.
+-- Keyset queries bound created_at, so they range-scan the composite index rather than the
+-- single-column index H2 keeps for each foreign key.
+
+-- findByStatus, findPageByStatus, countByStatus
+CREATE INDEX idx_requests_status_created ON maintenance_requests (status, created_at);
+
+-- per-type monthly counts over a created_at range
+CREATE INDEX idx_requests_type_created ON maintenance_requests (type, created_at);
+
+-- findPage (keyset over all requests)
+CREATE INDEX idx_requests_created_id ON maintenance_requests (created_at, id);
+
+-- findPageBySubmitter
+CREATE INDEX idx_requests_submitter_created ON maintenance_requests (submitter_id, created_at);
+
+-- findByApproverAndStatus, findPageByApproverAndStatus
+CREATE INDEX idx_approvals_approver_status_created ON approval_workflows (approver_id, status, created_at);
+
+-- findByRequestOrderByCreatedAtDesc
+CREATE INDEX idx_audit_logs_request_created ON audit_logs (request_id, created_at);
@@ -0,0 +1,15 @@
+-- Incrementally maintained request counts, one row per (status, type, environment, creation month).
+
+CREATE TABLE request_counters (
+    status VARCHAR(32) NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    environment VARCHAR(32) NOT NULL,
+    bucket_month VARCHAR(7) NOT NULL,
+    request_count BIGINT NOT NULL,
+    CONSTRAINT pk_request_counters PRIMARY KEY (status, type, environment, bucket_month)
+);
+
+INSERT INTO request_counters (status, type, environment, bucket_month, request_count)
+SELECT status, type, COALESCE(environment, 'UNSPECIFIED'), FORMATDATETIME(created_at, 'yyyy-MM'), COUNT(*)
+FROM maintenance_requests
+GROUP BY status, type, COALESCE(environment, 'UNSPECIFIED'), FORMATDATETIME(created_at, 'yyyy-MM');
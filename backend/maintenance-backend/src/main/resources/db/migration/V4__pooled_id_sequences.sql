@@ -0,0 +1,18 @@
+-- Sequence-backed ids for the write-heavy tables so Hibernate can batch their inserts.
+-- Ids are handed out in blocks of 50 (pooled-lo), so each sequence continues after the highest existing id.
+
+CREATE SEQUENCE maintenance_request_payloads_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE maintenance_request_payloads_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM maintenance_request_payloads);
+ALTER TABLE maintenance_request_payloads ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE maintenance_requests_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE maintenance_requests_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM maintenance_requests);
+ALTER TABLE maintenance_requests ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE approval_workflows_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE approval_workflows_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM approval_workflows);
+ALTER TABLE approval_workflows ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE audit_logs_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM audit_logs);
+ALTER TABLE audit_logs ALTER COLUMN id DROP IDENTITY;
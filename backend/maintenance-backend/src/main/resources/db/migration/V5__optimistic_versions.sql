@@ -0,0 +1,4 @@
+-- Version columns for optimistic locking of request and approval state transitions.
+
+ALTER TABLE maintenance_requests ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE approval_workflows ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
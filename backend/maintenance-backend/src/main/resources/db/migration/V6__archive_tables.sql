@@ -0,0 +1,64 @@
+-- Cold storage for closed requests. Rows are moved here by the archival job together with their
+-- approvals and audit logs, keeping their original ids; request payload columns are flattened in.
+
+CREATE TABLE archived_maintenance_requests (
+    id BIGINT NOT NULL,
+    version BIGINT,
+    title VARCHAR(255),
+    type VARCHAR(255),
+    status VARCHAR(255),
+    priority VARCHAR(255),
+    application VARCHAR(255),
+    environment VARCHAR(255),
+    description TEXT,
+    business_justification TEXT,
+    rollback_plan TEXT,
+    sql_statement TEXT,
+    config_content TEXT,
+    job_details TEXT,
+    validation_result TEXT,
+    execution_result TEXT,
+    affected_rows INTEGER,
+    execution_time FLOAT(53),
+    submitter_id BIGINT,
+    peer_reviewer_id BIGINT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_archived_maintenance_requests PRIMARY KEY (id),
+    CONSTRAINT fk_archived_requests_submitter FOREIGN KEY (submitter_id) REFERENCES users (id),
+    CONSTRAINT fk_archived_requests_peer_reviewer FOREIGN KEY (peer_reviewer_id) REFERENCES users (id)
+);
+
+CREATE TABLE archived_approval_workflows (
+    id BIGINT NOT NULL,
+    version BIGINT,
+    request_id BIGINT,
+    approver_id BIGINT,
+    type VARCHAR(255),
+    status VARCHAR(255),
+    comments TEXT,
+    created_at TIMESTAMP(6),
+    approved_at TIMESTAMP(6),
+    CONSTRAINT pk_archived_approval_workflows PRIMARY KEY (id)
+);
+
+CREATE TABLE archived_audit_logs (
+    id BIGINT NOT NULL,
+    request_id BIGINT,
+    user_id BIGINT,
+    action VARCHAR(255),
+    details TEXT,
+    ip_address VARCHAR(255),
+    user_agent VARCHAR(255),
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_archived_audit_logs PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_archived_approvals_request ON archived_approval_workflows (request_id);
+
+CREATE INDEX idx_archived_audit_logs_request_created ON archived_audit_logs (request_id, created_at);
+
+-- Lets the archival job find closed requests past the retention window without scanning the table.
+CREATE INDEX idx_requests_status_updated ON maintenance_requests (status, updated_at);
@@ -0,0 +1,15 @@
+-- Indexes backing GET /requests/filter. Each equality criterion gets a (column, created_at)
+-- index so the default created_at keyset order range-scans it; the other sort columns get
+-- (column, id) indexes matching their keyset order.
+
+CREATE INDEX idx_requests_priority_created ON maintenance_requests (priority, created_at);
+
+CREATE INDEX idx_requests_environment_created ON maintenance_requests (environment, created_at);
+
+CREATE INDEX idx_requests_application_created ON maintenance_requests (application, created_at);
+
+CREATE INDEX idx_requests_peer_reviewer_created ON maintenance_requests (peer_reviewer_id, created_at);
+
+CREATE INDEX idx_requests_updated_id ON maintenance_requests (updated_at, id);
+
+CREATE INDEX idx_requests_completed_id ON maintenance_requests (completed_at, id);
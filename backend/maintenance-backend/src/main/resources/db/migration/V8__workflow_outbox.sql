@@ -0,0 +1,22 @@
+-- Transactional outbox: one row per workflow transition, written in the transition's own transaction.
+-- Identity ids give the dispatcher a single delivery order; each subscriber tracks the last id it processed.
+
+CREATE TABLE workflow_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type VARCHAR(32) NOT NULL,
+    request_id BIGINT NOT NULL,
+    approval_id BIGINT,
+    approver_id BIGINT,
+    actor_id BIGINT,
+    from_status VARCHAR(32),
+    to_status VARCHAR(32),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_workflow_outbox PRIMARY KEY (id)
+);
+
+CREATE TABLE outbox_offsets (
+    subscriber VARCHAR(100) NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_outbox_offsets PRIMARY KEY (subscriber)
+);
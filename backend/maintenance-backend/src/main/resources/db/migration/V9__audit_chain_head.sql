@@ -0,0 +1,12 @@
+-- Last sequence and HMAC of the audit chain, advanced in the same transaction as each audit_logs batch.
+-- Verification compares the segment files against it, so truncating the files is detected.
+
+CREATE TABLE audit_chain_head (
+    id BIGINT NOT NULL,
+    last_sequence BIGINT NOT NULL,
+    last_hash VARCHAR(64),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_audit_chain_head PRIMARY KEY (id)
+);
+
+INSERT INTO audit_chain_head (id, last_sequence) VALUES (1, 0);
@@ -0,0 +1,62 @@
+package com.maintenance.backend;
+
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.MaintenanceRequestService;
+import com.maintenance.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.UUID;
+
+// Draft requests submitted by the seeded developer, for tests that need rows of their own.
+// Pulled into a test context with @Import(RequestFixtures.class).
+@TestComponent
+public class RequestFixtures {
+    
+    public static final String SUBMITTER = "john.doe@maintenance.com";
+    public static final String PEER_REVIEWER = "alice.johnson@maintenance.com";
+    
+    @Autowired
+    private MaintenanceRequestService requestService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public User user(String email) {
+        return userService.getUserByEmail(email).orElseThrow();
+    }
+    
+    // A low-priority TESTING request with a unique title and the payload its type requires.
+    public MaintenanceRequest newRequest(MaintenanceRequest.RequestType type, String label) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTitle(label + " " + UUID.randomUUID());
+        request.setType(type);
+        request.setPriority(MaintenanceRequest.Priority.LOW);
+        request.setApplication(label + " Test");
+        request.setEnvironment(MaintenanceRequest.Environment.TESTING);
+        switch (type) {
+            case SQL_FIX -> {
+                request.setSqlStatement("SELECT 1");
+                request.setPeerReviewer(user(PEER_REVIEWER));
+            }
+            case CONFIG_UPDATE -> request.setConfigContent("key=value");
+            case JOB_CONTROL -> request.setJobDetails("restart nightly job");
+        }
+        return request;
+    }
+    
+    public MaintenanceRequest create(MaintenanceRequest.RequestType type, String label) {
+        return create(newRequest(type, label));
+    }
+    
+    // Joins the caller's transaction if there is one.
+    public MaintenanceRequest create(MaintenanceRequest request) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                requestService.createRequest(request, user(SUBMITTER)));
+    }
+}
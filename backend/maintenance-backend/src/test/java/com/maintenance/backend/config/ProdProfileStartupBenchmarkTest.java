@@ -0,0 +1,134 @@
+package com.maintenance.backend.config;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import com.maintenance.backend.service.ApprovalWorkflowService;
+import com.maintenance.backend.service.MaintenanceRequestService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Times application startup with the in-memory database, with the prod profile against an empty
+// data directory and again against the directory the first prod start left behind. Both databases
+// then get the same extra requests and time the hot-path reads in a steady state: the request
+// list, the pending-approval page and queue and a request's detail, with the second-level cache
+// emptied before each round so every read reaches the database.
+class ProdProfileStartupBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProdProfileStartupBenchmarkTest.class);
+    
+    private static final int REQUESTS = 200;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 500;
+    
+    @TempDir
+    Path dataDir;
+    
+    @Test
+    void restartReusesTheFileDatabase() {
+        // The first start in the JVM pays for class loading and is left out
+        new SpringApplicationBuilder(MaintenanceBackendApplication.class).profiles("test").run().close();
+        long inMemory;
+        HotPath inMemoryReads;
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                MaintenanceBackendApplication.class, RequestFixtures.class).profiles("test").run()) {
+            inMemory = (System.nanoTime() - started) / 1_000_000;
+            seed(context);
+            inMemoryReads = hotPath(context);
+        }
+        
+        long requests;
+        started = System.nanoTime();
+        try (ConfigurableApplicationContext context = startProd()) {
+            long cold = (System.nanoTime() - started) / 1_000_000;
+            logger.info("Startup: in-memory {} ms, prod on an empty data directory {} ms", inMemory, cold);
+            seed(context);
+            requests = context.getBean(MaintenanceRequestRepository.class).count();
+        }
+        
+        started = System.nanoTime();
+        try (ConfigurableApplicationContext context = startProd()) {
+            long warm = (System.nanoTime() - started) / 1_000_000;
+            logger.info("Startup: prod on an existing data directory {} ms", warm);
+            
+            HotPath prodReads = hotPath(context);
+            logger.info("Hot-path reads per round over {} requests: in-memory median {} us, p95 {} us; "
+                            + "prod file median {} us, p95 {} us", requests, inMemoryReads.medianMicros(),
+                    inMemoryReads.p95Micros(), prodReads.medianMicros(), prodReads.p95Micros());
+            assertEquals(inMemoryReads.rows(), prodReads.rows(), "both databases return the same pages");
+            
+            Flyway flyway = context.getBean(Flyway.class);
+            assertEquals(0, flyway.info().pending().length, "no migration is left to run");
+            assertTrue(requests > 0);
+            assertEquals(requests, context.getBean(MaintenanceRequestRepository.class).count(),
+                    "the restart neither loses nor re-seeds requests");
+        }
+    }
+    
+    private static void seed(ConfigurableApplicationContext context) {
+        RequestFixtures fixtures = context.getBean(RequestFixtures.class);
+        ApprovalWorkflowService approvalService = context.getBean(ApprovalWorkflowService.class);
+        User manager = fixtures.user("manager@maintenance.com");
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            for (int i = 0; i < REQUESTS; i++) {
+                MaintenanceRequest request = fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Hot path");
+                if (i % 4 == 0) {
+                    approvalService.createManagerApproval(request, manager);
+                }
+            }
+        });
+    }
+    
+    private static HotPath hotPath(ConfigurableApplicationContext context) {
+        MaintenanceRequestService requestService = context.getBean(MaintenanceRequestService.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        long[] samples = new long[ROUNDS];
+        int rows = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            entityManagerFactory.getCache().evictAll();
+            long started = System.nanoTime();
+            List<MaintenanceRequestSummary> page = requestService.getRequestsPage(null, 20).getItems();
+            rows = page.size();
+            rows += requestService.getRequestsByStatus(
+                    MaintenanceRequest.RequestStatus.PENDING_APPROVAL, null, 20).getItems().size();
+            rows += requestService.getPendingApprovalRequests().size();
+            requestService.getRequestDetail(page.get(round % page.size()).id()).orElseThrow();
+            if (round >= WARMUP_ROUNDS) {
+                samples[round - WARMUP_ROUNDS] = (System.nanoTime() - started) / 1000;
+            }
+        }
+        Arrays.sort(samples);
+        return new HotPath(samples[ROUNDS / 2], samples[ROUNDS * 95 / 100], rows);
+    }
+    
+    private ConfigurableApplicationContext startProd() {
+        return new SpringApplicationBuilder(MaintenanceBackendApplication.class, RequestFixtures.class)
+                .profiles("prod")
+                .run("--server.port=0",
+                        "--maintenance.data-dir=" + dataDir,
+                        "--maintenance.cluster.node-id=benchmark-node",
+                        "--maintenance.audit.chain-key=" + Base64.getEncoder().encodeToString(new byte[32]));
+    }
+    
+    private record HotPath(long medianMicros, long p95Micros, int rows) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.maintenance.backend.config;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two in-memory H2 databases stand in for a primary and a replica that never catches up: the
+// replica has the schema but no rows, so every read shows which of the two it went to.
+class ReadReplicaRoutingTest {
+    
+    private static final String COUNT_USERS = "SELECT COUNT(*) FROM users";
+    
+    private static ConfigurableApplicationContext context;
+    private static ReadYourWritesTracker tracker;
+    private static JdbcTemplate routed;
+    private static JdbcTemplate primary;
+    private static JdbcTemplate replica;
+    
+    @BeforeAll
+    static void start() {
+        String replicaUrl = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(replicaUrl, "sa", "password").load().migrate();
+        context = startWithReplica(replicaUrl);
+        tracker = context.getBean(ReadYourWritesTracker.class);
+        routed = new JdbcTemplate(context.getBean(DataSource.class));
+        primary = new JdbcTemplate(context.getBean("primaryDataSource", DataSource.class));
+        replica = new JdbcTemplate(context.getBean("replicaDataSource", DataSource.class));
+    }
+    
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+    
+    @AfterEach
+    void unbind() {
+        tracker.clear();
+    }
+    
+    @Test
+    void readOnlyTransactionsOfARequestUseTheReplica() {
+        tracker.bind("Bearer reader");
+        
+        assertEquals(0, countUsers(true));
+        assertTrue(countUsers(false) > 0);
+    }
+    
+    @Test
+    void readsOutsideARequestUseThePrimary() {
+        assertTrue(countUsers(true) > 0);
+    }
+    
+    @Test
+    void bareRepositoryReadsOfARequestUseTheReplica() {
+        tracker.bind("Bearer reader");
+        
+        assertEquals(0, context.getBean(UserRepository.class).count());
+    }
+    
+    @Test
+    void bareRepositoryReadsOutsideARequestUseThePrimary() {
+        assertTrue(context.getBean(UserRepository.class).count() > 0);
+    }
+    
+    @Test
+    void writeAfterAReplicaReadGoesToThePrimaryAndTheWriterKeepsReadingIt() {
+        tracker.bind("Bearer writer");
+        assertEquals(0, countUsers(true));
+        
+        String email = UUID.randomUUID() + "@example.com";
+        transaction(false).executeWithoutResult(status -> routed.update(
+                "INSERT INTO users (name, email, role, status) VALUES ('Replica Test', ?, 'DEVELOPER', 'ACTIVE')",
+                email));
+        
+        assertEquals(1, countByEmail(primary, email));
+        assertEquals(0, countByEmail(replica, email));
+        assertTrue(countUsers(true) > 0, "the writer reads its own write from the primary");
+        
+        tracker.bind("Bearer someone-else");
+        assertEquals(0, countUsers(true));
+    }
+    
+    @Test
+    void startupSucceedsAgainstAnEmptyReplica() {
+        String emptyReplica = "jdbc:h2:mem:empty-replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext started = startWithReplica(emptyReplica)) {
+            assertTrue(started.isActive());
+        }
+    }
+    
+    @Test
+    void openInViewIsDisabled() {
+        assertTrue(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+    
+    private static long countUsers(boolean readOnly) {
+        return transaction(readOnly).execute(status -> routed.queryForObject(COUNT_USERS, Long.class));
+    }
+    
+    private static long countByEmail(JdbcTemplate jdbc, String email) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Long.class, email);
+    }
+    
+    private static TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+    
+    private static ConfigurableApplicationContext startWithReplica(String replicaUrl) {
+        return new SpringApplicationBuilder(MaintenanceBackendApplication.class)
+                .profiles("test")
+                .run("--maintenance.datasource.replica.url=" + replicaUrl);
+    }
+}
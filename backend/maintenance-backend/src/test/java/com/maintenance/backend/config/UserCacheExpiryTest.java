@@ -0,0 +1,75 @@
+package com.maintenance.backend.config;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two application contexts stand in for two cluster nodes sharing one file database. Node A caches
+// users for two seconds; a change node B makes is only seen on A once A's entry has expired.
+class UserCacheExpiryTest {
+    
+    private static final long USERS_TTL_MS = 2000;
+    
+    @TempDir
+    static Path dataDir;
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() {
+        String sharedDb = "jdbc:h2:file:" + dataDir.resolve("user-cache-test") + ";DB_CLOSE_ON_EXIT=FALSE";
+        nodeA = startNode("node-a", sharedDb);
+        nodeB = startNode("node-b", sharedDb);
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+    
+    @Test
+    void anotherNodesChangeToAUserShowsUpOnceTheCachedEntryExpires() throws InterruptedException {
+        UserService usersA = nodeA.getBean(UserService.class);
+        UserService usersB = nodeB.getBean(UserService.class);
+        User carol = usersB.getUserByEmail("carol.davis@maintenance.com").orElseThrow();
+        String originalName = carol.getName();
+        
+        assertEquals(originalName, usersA.getUserById(carol.getId()).orElseThrow().getName());
+        long cachedAt = System.currentTimeMillis();
+        
+        carol.setName("Carol Renamed");
+        carol.setPassword(null);
+        usersB.updateUser(carol.getId(), carol);
+        
+        String seenOnA = usersA.getUserById(carol.getId()).orElseThrow().getName();
+        if (System.currentTimeMillis() - cachedAt < USERS_TTL_MS) {
+            assertEquals(originalName, seenOnA);
+        }
+        
+        long deadline = cachedAt + USERS_TTL_MS + 5000;
+        while (!"Carol Renamed".equals(seenOnA) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            seenOnA = usersA.getUserById(carol.getId()).orElseThrow().getName();
+        }
+        assertEquals("Carol Renamed", seenOnA);
+    }
+    
+    private static ConfigurableApplicationContext startNode(String nodeId, String sharedDb) {
+        return new SpringApplicationBuilder(MaintenanceBackendApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=" + sharedDb,
+                        "--maintenance.cluster.node-id=" + nodeId,
+                        "--maintenance.cache.users-ttl=" + USERS_TTL_MS + "ms");
+    }
+}
@@ -0,0 +1,177 @@
+package com.maintenance.backend.controller;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.ApprovalWorkflowRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counts the statements each endpoint sends from the request thread, with the second-level cache
+// emptied first, and checks the count does not grow with the number of rows returned.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+@Import(RequestFixtures.class)
+class FetchPlanQueryCountTest {
+    
+    private static final StatementCounter counter = new StatementCounter();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private ApprovalWorkflowRepository approvalRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void requestListIsOneStatementWhateverThePageSize() throws Exception {
+        createRequests(12);
+        
+        long small = statements(get("/requests").param("limit", "2"));
+        long large = statements(get("/requests").param("limit", "12"));
+        
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+    
+    @Test
+    void requestDetailFetchesSubmitterPeerReviewerAndPayloadInOneStatement() throws Exception {
+        MaintenanceRequest request = createRequests(1).get(0);
+        
+        counter.reset();
+        evictCaches();
+        mockMvc.perform(get("/requests/" + request.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.submitter.name").value("John Doe"))
+                .andExpect(jsonPath("$.peerReviewer.name").value("Alice Johnson"))
+                .andExpect(jsonPath("$.sqlStatement").value("SELECT 1"));
+        
+        assertEquals(1, counter.count());
+    }
+    
+    @Test
+    void approvalsOfARequestTakeTheSameStatementsForOneOrManyApprovals() throws Exception {
+        List<MaintenanceRequest> requests = createRequests(2);
+        assignApprovals(requests.subList(0, 1), 1, user("manager@maintenance.com"));
+        assignApprovals(requests.subList(1, 2), 6, user("manager@maintenance.com"));
+        
+        long one = statements(get("/approvals/request/" + requests.get(0).getId()),
+                jsonPath("$[0].approver.name").value("Manager Smith"));
+        long many = statements(get("/approvals/request/" + requests.get(1).getId()),
+                jsonPath("$[5].request.title").value(requests.get(1).getTitle()));
+        
+        assertTrue(one <= 2, "statements: " + one);
+        assertEquals(one, many);
+    }
+    
+    @Test
+    void pendingApprovalsTakeTheSameStatementsForOneOrManyApprovals() throws Exception {
+        User bob = user("bob.smith@maintenance.com");
+        User carol = user("carol.davis@maintenance.com");
+        assignApprovals(createRequests(1), 1, bob);
+        assignApprovals(createRequests(6), 1, carol);
+        
+        long one = statements(get("/approvals/pending").header("Authorization", "Bearer mock-jwt-token-" + bob.getId()),
+                jsonPath("$.items[0].submitter.name").value("John Doe"));
+        long many = statements(get("/approvals/pending").header("Authorization", "Bearer mock-jwt-token-" + carol.getId()),
+                jsonPath("$.items[5].submitter.name").value("John Doe"));
+        
+        assertTrue(one <= 2, "statements: " + one);
+        assertEquals(one, many);
+    }
+    
+    private long statements(RequestBuilder request, ResultMatcher... matchers) throws Exception {
+        evictCaches();
+        counter.reset();
+        mockMvc.perform(request).andExpect(status().isOk()).andExpectAll(matchers);
+        return counter.count();
+    }
+    
+    private void evictCaches() {
+        entityManagerFactory.getCache().evictAll();
+    }
+    
+    private List<MaintenanceRequest> createRequests(int count) {
+        List<MaintenanceRequest> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created.add(fixtures.create(MaintenanceRequest.RequestType.SQL_FIX, "Fetch plan"));
+        }
+        return created;
+    }
+    
+    private void assignApprovals(List<MaintenanceRequest> requests, int perRequest, User approver) {
+        for (MaintenanceRequest request : requests) {
+            for (int i = 0; i < perRequest; i++) {
+                ApprovalWorkflow approval = new ApprovalWorkflow();
+                approval.setRequest(request);
+                approval.setApprover(approver);
+                approval.setType(ApprovalWorkflow.ApprovalType.MANAGER_APPROVAL);
+                approval.setStatus(ApprovalWorkflow.ApprovalStatus.PENDING);
+                approvalRepository.save(approval);
+            }
+        }
+    }
+    
+    private User user(String email) {
+        return fixtures.user(email);
+    }
+    
+    @TestConfiguration
+    static class StatementCounterConfig {
+        
+        @Bean
+        HibernatePropertiesCustomizer statementCounter() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+        }
+    }
+    
+    // Counts per thread, so the outbox dispatcher and other background jobs do not add to a count.
+    static class StatementCounter implements StatementInspector {
+        
+        private final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+        
+        @Override
+        public String inspect(String sql) {
+            count.get()[0]++;
+            return sql;
+        }
+        
+        void reset() {
+            count.get()[0] = 0;
+        }
+        
+        long count() {
+            return count.get()[0];
+        }
+    }
+}
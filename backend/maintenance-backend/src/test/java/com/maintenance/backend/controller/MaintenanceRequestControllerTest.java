@@ -0,0 +1,118 @@
+package com.maintenance.backend.controller;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.ApprovalWorkflowService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each transition is sent for a request the second-level cache does not hold, so its response is
+// serialized from what the transition's own transaction loaded.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+@Import(RequestFixtures.class)
+class MaintenanceRequestControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void submittingAConfigUpdateReturnsItsPayload() throws Exception {
+        MaintenanceRequest request = fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Submit");
+        evictCaches();
+        
+        mockMvc.perform(post("/requests/" + request.getId() + "/submit").header("Authorization", token(RequestFixtures.SUBMITTER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUBMITTED"))
+                .andExpect(jsonPath("$.configContent").value("key=value"))
+                .andExpect(jsonPath("$.submitter.name").value("John Doe"));
+    }
+    
+    @Test
+    void updatingARequestReturnsItsPayload() throws Exception {
+        MaintenanceRequest request = fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Update");
+        evictCaches();
+        
+        mockMvc.perform(put("/requests/" + request.getId()).header("Authorization", token(RequestFixtures.SUBMITTER))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Updated config\", \"type\": \"CONFIG_UPDATE\", \"application\": \"Update Test\", "
+                                + "\"configContent\": \"key=other\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Updated config"))
+                .andExpect(jsonPath("$.configContent").value("key=other"))
+                .andExpect(jsonPath("$.submitter.name").value("John Doe"));
+    }
+    
+    @Test
+    void executingARequestReturnsItsPayload() throws Exception {
+        MaintenanceRequest request = fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Execute");
+        jdbc.update("UPDATE maintenance_requests SET status = 'APPROVED' WHERE id = ?", request.getId());
+        evictCaches();
+        
+        mockMvc.perform(post("/requests/" + request.getId() + "/execute").header("Authorization", token("admin@maintenance.com")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.configContent").value("key=value"))
+                .andExpect(jsonPath("$.submitter.name").value("John Doe"));
+    }
+    
+    @Test
+    void approvingARequestReturnsTheRequestWithoutItsPayload() throws Exception {
+        User manager = fixtures.user("manager@maintenance.com");
+        ApprovalWorkflow approval = new TransactionTemplate(transactionManager).execute(status -> approvalService
+                .createManagerApproval(fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Approve"), manager));
+        evictCaches();
+        
+        mockMvc.perform(post("/approvals/" + approval.getId() + "/process").header("Authorization", token("manager@maintenance.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"decision\": \"approved\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"))
+                .andExpect(jsonPath("$.request.status").value("APPROVED"))
+                .andExpect(jsonPath("$.request.title").exists())
+                .andExpect(jsonPath("$.request.configContent").doesNotExist());
+    }
+    
+    private String token(String email) {
+        return "Bearer mock-jwt-token-" + fixtures.user(email).getId();
+    }
+    
+    private void evictCaches() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
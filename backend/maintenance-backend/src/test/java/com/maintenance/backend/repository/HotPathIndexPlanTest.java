@@ -0,0 +1,157 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.dto.RequestFilter;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.MaintenanceRequestService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Captures the SQL Hibernate generates for each repository call the V2 indexes were added for and
+// runs EXPLAIN on it, parameters unbound, to check H2 plans it against the intended index.
+@SpringBootTest
+@ActiveProfiles("test")
+class HotPathIndexPlanTest {
+    
+    private static final StatementRecorder recorder = new StatementRecorder();
+    
+    private static final LocalDateTime CURSOR_AT = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final long CURSOR_ID = 1000;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private ApprovalWorkflowRepository approvalRepository;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MaintenanceRequestService requestService;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void pageByStatusUsesTheStatusIndex() {
+        assertUses("IDX_REQUESTS_STATUS_CREATED", sqlOf(() -> requestRepository.findPageByStatus(
+                MaintenanceRequest.RequestStatus.PENDING_APPROVAL, CURSOR_AT, CURSOR_ID, PageRequest.of(0, 51))));
+    }
+    
+    @Test
+    void countByStatusUsesTheStatusIndex() {
+        assertUses("IDX_REQUESTS_STATUS_CREATED",
+                sqlOf(() -> requestRepository.countByStatus(MaintenanceRequest.RequestStatus.PENDING_APPROVAL)));
+    }
+    
+    @Test
+    void typeFilterOverACreatedRangeUsesTheTypeIndex() {
+        RequestFilter filter = new RequestFilter();
+        filter.setType(List.of(MaintenanceRequest.RequestType.SQL_FIX));
+        filter.setCreatedFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+        filter.setCreatedTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+        assertUses("IDX_REQUESTS_TYPE_CREATED", sqlOf(() -> requestService.getFilteredRequests(filter, null, 20)));
+    }
+    
+    @Test
+    void pageUsesTheCreatedIdIndex() {
+        assertUses("IDX_REQUESTS_CREATED_ID",
+                sqlOf(() -> requestRepository.findPage(CURSOR_AT, CURSOR_ID, PageRequest.of(0, 51))));
+    }
+    
+    @Test
+    void pageBySubmitterUsesTheSubmitterIndex() {
+        User submitter = userRepository.findByEmail("john.doe@maintenance.com").orElseThrow();
+        assertUses("IDX_REQUESTS_SUBMITTER_CREATED", sqlOf(() -> requestRepository.findPageBySubmitter(
+                submitter.getId(), CURSOR_AT, CURSOR_ID, PageRequest.of(0, 51))));
+    }
+    
+    @Test
+    void approverInboxUsesTheApproverIndex() {
+        assertUses("IDX_APPROVALS_APPROVER_STATUS_CREATED", sqlOf(() -> approvalRepository
+                .findSummariesByApproverAndStatus(2L, ApprovalWorkflow.ApprovalStatus.PENDING)));
+    }
+    
+    @Test
+    void auditTimelinePageUsesTheRequestIndex() {
+        assertUses("IDX_AUDIT_LOGS_REQUEST_CREATED",
+                sqlOf(() -> auditLogRepository.findTimelinePage(1L, CURSOR_AT, CURSOR_ID, PageRequest.of(0, 21))));
+    }
+    
+    // The one SELECT the call sent from this thread
+    private static String sqlOf(Runnable call) {
+        recorder.start();
+        List<String> statements;
+        try {
+            call.run();
+        } finally {
+            statements = recorder.stop();
+        }
+        List<String> selects = statements.stream()
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .toList();
+        assertEquals(1, selects.size(), "statements: " + statements);
+        return selects.get(0);
+    }
+    
+    private void assertUses(String index, String sql) {
+        String plan = jdbc.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+        assertTrue(plan != null && plan.toUpperCase().contains(index),
+                "expected " + index + " in plan of\n" + sql + "\n" + plan);
+    }
+    
+    @TestConfiguration
+    static class StatementRecorderConfig {
+        
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+        }
+    }
+    
+    // Records per thread, so background jobs do not add statements while a call is captured.
+    static class StatementRecorder implements StatementInspector {
+        
+        private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+        
+        @Override
+        public String inspect(String sql) {
+            List<String> recording = statements.get();
+            if (recording != null) {
+                recording.add(sql);
+            }
+            return sql;
+        }
+        
+        void start() {
+            statements.set(new ArrayList<>());
+        }
+        
+        List<String> stop() {
+            List<String> recorded = statements.get();
+            statements.remove();
+            return recorded;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.maintenance.backend.repository;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.service.ApprovalWorkflowService;
+import com.maintenance.backend.service.MaintenanceRequestService;
+import com.maintenance.backend.service.UserService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Round trips for one create, submit and approve transition, with the V3 id mapping (IDENTITY
+// columns, no JDBC batching) against the current V4 one (pooled sequences, batching on). The V3
+// run restores the identity columns with a test-only migration and overrides the entity ids in
+// orm.xml. Statements are counted on the test thread only, so the audit writer, the outbox
+// dispatcher and other background jobs do not add to the count. A transition writes at most one
+// row per table per flush, so its batches hold a single statement and pooled ids save no round
+// trips there; they only add a sequence fetch per 50 ids of each table it inserts into.
+class InsertBatchingBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+    
+    private static final StatementCounter counter = new StatementCounter();
+    
+    private static final int WARMUP = 10;
+    private static final int TRANSITIONS = 100;
+    
+    // Ids past the V3 run's identity restart value can only come from the identity columns.
+    private static final long IDENTITY_START = 100000;
+    
+    // Request, payload and approval sequences, one fetch per 50 ids each, plus a partly used block
+    private static final long SEQUENCE_FETCHES = 3 * (TRANSITIONS / 50 + 1);
+    
+    @Test
+    void pooledIdsCostATransitionOnlyTheirAmortisedSequenceFetches() {
+        Result identity = run("--spring.flyway.locations=classpath:db/migration,classpath:db/identity-ids",
+                "--spring.jpa.mapping-resources=META-INF/identity-ids-orm.xml",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=0");
+        Result pooled = run();
+        logger.info("Create, submit and approve, {} transitions: IDENTITY {} statements in {} us, "
+                        + "pooled {} statements in {} us", TRANSITIONS, identity.statements(), identity.micros(),
+                pooled.statements(), pooled.micros());
+        
+        assertTrue(identity.lastId() >= IDENTITY_START, "identity id: " + identity.lastId());
+        assertTrue(pooled.lastId() < IDENTITY_START, "pooled id: " + pooled.lastId());
+        assertTrue(pooled.statements() <= identity.statements() + SEQUENCE_FETCHES,
+                "pooled " + pooled.statements() + ", identity " + identity.statements());
+    }
+    
+    private static Result run(String... args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MaintenanceBackendApplication.class,
+                StatementCounterConfig.class).profiles("test").run(args)) {
+            MaintenanceRequestService requestService = context.getBean(MaintenanceRequestService.class);
+            ApprovalWorkflowService approvalService = context.getBean(ApprovalWorkflowService.class);
+            UserService userService = context.getBean(UserService.class);
+            User submitter = userService.getUserByEmail("john.doe@maintenance.com").orElseThrow();
+            User manager = userService.getUserByEmail("manager@maintenance.com").orElseThrow();
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            
+            long lastId = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                lastId = transition(transaction, requestService, approvalService, submitter, manager);
+            }
+            counter.reset();
+            long started = System.nanoTime();
+            for (int i = 0; i < TRANSITIONS; i++) {
+                lastId = transition(transaction, requestService, approvalService, submitter, manager);
+            }
+            long micros = (System.nanoTime() - started) / 1000;
+            return new Result(counter.count(), micros, lastId);
+        }
+    }
+    
+    private static long transition(TransactionTemplate transaction, MaintenanceRequestService requestService,
+                                   ApprovalWorkflowService approvalService, User submitter, User manager) {
+        return transaction.execute(status -> {
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setTitle("Benchmark " + UUID.randomUUID());
+            request.setType(MaintenanceRequest.RequestType.CONFIG_UPDATE);
+            request.setPriority(MaintenanceRequest.Priority.LOW);
+            request.setApplication("Benchmark Test");
+            request.setEnvironment(MaintenanceRequest.Environment.TESTING);
+            request.setConfigContent("key=value");
+            MaintenanceRequest created = requestService.createRequest(request, submitter);
+            MaintenanceRequest submitted = requestService.submitRequest(created.getId(), submitter);
+            ApprovalWorkflow approval = approvalService.createManagerApproval(submitted, manager);
+            ApprovalWorkflow approved = approvalService.processApproval(approval.getId(),
+                    ApprovalWorkflow.ApprovalStatus.APPROVED, "ok", manager);
+            assertEquals(MaintenanceRequest.RequestStatus.APPROVED, approved.getRequest().getStatus());
+            return created.getId();
+        });
+    }
+    
+    private record Result(long statements, long micros, long lastId) {
+    }
+    
+    @TestConfiguration
+    static class StatementCounterConfig {
+        
+        @Bean
+        HibernatePropertiesCustomizer statementCounter() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+        }
+    }
+    
+    // Each prepared statement is one round trip: a JDBC batch is prepared once and sent once.
+    static class StatementCounter implements StatementInspector {
+        
+        private final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+        
+        @Override
+        public String inspect(String sql) {
+            count.get()[0]++;
+            return sql;
+        }
+        
+        void reset() {
+            count.get()[0] = 0;
+        }
+        
+        long count() {
+            return count.get()[0];
+        }
+    }
+}
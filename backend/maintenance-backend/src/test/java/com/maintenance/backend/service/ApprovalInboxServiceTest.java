@@ -0,0 +1,55 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ApprovalInboxServiceTest {
+    
+    private static final Long MANAGER = 2L;
+    private static final Long ADMIN = 1L;
+    
+    @Autowired
+    private ApprovalInboxService inboxService;
+    
+    @Autowired
+    private ExecutionLeaseService leaseService;
+    
+    @Test
+    void approvalEventFromThisNodeKeepsTheInbox() {
+        String etag = inboxService.getInbox(MANAGER).etag();
+        
+        inboxService.onEvents(List.of(approvalEvent(OutboxEvent.EventType.APPROVAL_ASSIGNED, leaseService.getNodeId())));
+        
+        assertEquals(etag, inboxService.getInbox(MANAGER).etag());
+    }
+    
+    @Test
+    void approvalEventFromAnotherNodeReloadsOnlyTheApproversInbox() {
+        String managerEtag = inboxService.getInbox(MANAGER).etag();
+        String adminEtag = inboxService.getInbox(ADMIN).etag();
+        
+        inboxService.onEvents(List.of(approvalEvent(OutboxEvent.EventType.APPROVAL_DECIDED, "other-node")));
+        
+        assertNotEquals(managerEtag, inboxService.getInbox(MANAGER).etag());
+        assertEquals(adminEtag, inboxService.getInbox(ADMIN).etag());
+    }
+    
+    private static OutboxEvent approvalEvent(OutboxEvent.EventType type, String nodeId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setRequestId(990001L);
+        event.setApprovalId(990001L);
+        event.setApproverId(MANAGER);
+        event.setNodeId(nodeId);
+        return event;
+    }
+}
@@ -0,0 +1,158 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.BulkApprovalItem;
+import com.maintenance.backend.dto.BulkApprovalResponse;
+import com.maintenance.backend.dto.BulkApprovalResult;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.ApprovalWorkflowRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "maintenance.approvals.bulk-max-items=3")
+@ActiveProfiles("test")
+@Import(RequestFixtures.class)
+class ApprovalWorkflowServiceTest {
+    
+    @Autowired
+    private ApprovalWorkflowService approvalService;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private ApprovalWorkflowRepository approvalRepository;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Test
+    void batchReportsFailedItemsAndAppliesTheRest() {
+        User manager = user("manager@maintenance.com");
+        ApprovalWorkflow first = pendingApproval(manager);
+        ApprovalWorkflow second = pendingApproval(manager);
+        ApprovalWorkflow someoneElses = pendingApproval(user("admin@maintenance.com"));
+        
+        BulkApprovalResponse response = approvalService.processApprovals(List.of(
+                new BulkApprovalItem(first.getId(), "approved", "ok"),
+                new BulkApprovalItem(someoneElses.getId(), "approved", null),
+                new BulkApprovalItem(second.getId(), "rejected", "no")), manager);
+        
+        assertEquals(2, response.processed());
+        assertEquals(1, response.failed());
+        BulkApprovalResult mismatched = response.results().get(1);
+        assertFalse(mismatched.success());
+        assertEquals("Approval is assigned to another approver", mismatched.error());
+        
+        assertEquals(ApprovalWorkflow.ApprovalStatus.APPROVED, status(first));
+        assertEquals(ApprovalWorkflow.ApprovalStatus.REJECTED, status(second));
+        assertEquals(ApprovalWorkflow.ApprovalStatus.PENDING, status(someoneElses));
+        assertEquals(MaintenanceRequest.RequestStatus.APPROVED, requestStatus(first));
+        assertEquals(MaintenanceRequest.RequestStatus.PENDING_APPROVAL, requestStatus(someoneElses));
+    }
+    
+    @Test
+    void duplicateIdIsAppliedOnceAndReportedOnce() {
+        User manager = user("manager@maintenance.com");
+        ApprovalWorkflow approval = pendingApproval(manager);
+        
+        BulkApprovalResponse response = approvalService.processApprovals(List.of(
+                new BulkApprovalItem(approval.getId(), "approved", null),
+                new BulkApprovalItem(approval.getId(), "rejected", null)), manager);
+        
+        assertEquals(1, response.processed());
+        assertTrue(response.results().get(0).success());
+        assertEquals("Approval appears more than once in the batch", response.results().get(1).error());
+        assertEquals(ApprovalWorkflow.ApprovalStatus.APPROVED, status(approval));
+    }
+    
+    @Test
+    void batchOverTheLimitIsRejectedWhole() {
+        User manager = user("manager@maintenance.com");
+        List<ApprovalWorkflow> approvals = List.of(pendingApproval(manager), pendingApproval(manager),
+                pendingApproval(manager), pendingApproval(manager));
+        List<BulkApprovalItem> items = approvals.stream()
+                .map(approval -> new BulkApprovalItem(approval.getId(), "approved", null))
+                .toList();
+        
+        assertThrows(IllegalArgumentException.class, () -> approvalService.processApprovals(items, manager));
+        for (ApprovalWorkflow approval : approvals) {
+            assertEquals(ApprovalWorkflow.ApprovalStatus.PENDING, status(approval));
+        }
+    }
+    
+    // The batch loads both approvals, then another writer commits a change to the second one
+    // before the batch flushes; its update then matches no row and the whole batch rolls back.
+    @Test
+    void versionConflictRollsBackTheWholeBatch() {
+        User manager = user("manager@maintenance.com");
+        ApprovalWorkflow first = pendingApproval(manager);
+        ApprovalWorkflow second = pendingApproval(manager);
+        
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    approvalRepository.findWithRequestByIdIn(List.of(first.getId(), second.getId()));
+                    bumpVersion(second);
+                    approvalService.processApprovals(List.of(
+                            new BulkApprovalItem(first.getId(), "approved", null),
+                            new BulkApprovalItem(second.getId(), "approved", null)), manager);
+                }));
+        
+        assertEquals(ApprovalWorkflow.ApprovalStatus.PENDING, status(first));
+        assertEquals(ApprovalWorkflow.ApprovalStatus.PENDING, status(second));
+        assertEquals(MaintenanceRequest.RequestStatus.PENDING_APPROVAL, requestStatus(first));
+    }
+    
+    private ApprovalWorkflow pendingApproval(User approver) {
+        return new TransactionTemplate(transactionManager).execute(status -> approvalService.createManagerApproval(
+                fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Bulk approval"), approver));
+    }
+    
+    // Commits on a connection of its own, outside the caller's transaction.
+    private void bumpVersion(ApprovalWorkflow approval) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE approval_workflows SET version = version + 1 WHERE id = ?")) {
+            statement.setLong(1, approval.getId());
+            statement.executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    private ApprovalWorkflow.ApprovalStatus status(ApprovalWorkflow approval) {
+        return approvalRepository.findById(approval.getId()).orElseThrow().getStatus();
+    }
+    
+    private MaintenanceRequest.RequestStatus requestStatus(ApprovalWorkflow approval) {
+        return approvalRepository.findWithRequestById(approval.getId()).orElseThrow().getRequest().getStatus();
+    }
+    
+    private User user(String email) {
+        return fixtures.user(email);
+    }
+}
@@ -0,0 +1,147 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.RequestExportRow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(RequestFixtures.class)
+class ArchivalServiceTest {
+    
+    private static final String MAKE_STALE = "UPDATE maintenance_requests SET status = 'COMPLETED', "
+            + "updated_at = DATEADD('DAY', -365, LOCALTIMESTAMP) WHERE id = ?";
+    
+    @Autowired
+    private ArchivalService archivalService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void closedRequestPastRetentionIsMovedToTheArchive() throws Exception {
+        Long id = staleClosedRequest();
+        awaitAuditLog(id);
+        
+        archivalService.archiveClosedRequests();
+        
+        assertFalse(requestRepository.existsById(id));
+        assertTrue(archiveRepository.existsById(id));
+    }
+    
+    // Another transaction reopens the request after the archival run selected it; the run has to
+    // wait for it and then leave the request in place.
+    @Test
+    void requestReopenedWhileBeingArchivedStaysInTheHotTables() throws Exception {
+        Long id = staleClosedRequest();
+        Thread archival = new Thread(archivalService::archiveClosedRequests);
+        
+        try (Connection reopening = dataSource.getConnection()) {
+            reopening.setAutoCommit(false);
+            try (PreparedStatement statement = reopening.prepareStatement("UPDATE maintenance_requests "
+                    + "SET status = 'IN_PROGRESS', updated_at = LOCALTIMESTAMP, version = version + 1 WHERE id = ?")) {
+                statement.setLong(1, id);
+                statement.executeUpdate();
+            }
+            archival.start();
+            archival.join(300);
+            assertTrue(archival.isAlive(), "the archival run waits for the reopening transaction");
+            reopening.commit();
+        }
+        archival.join(10000);
+        
+        assertFalse(archiveRepository.existsById(id));
+        assertEquals("IN_PROGRESS",
+                jdbc.queryForObject("SELECT status FROM maintenance_requests WHERE id = ?", String.class, id));
+    }
+    
+    @Test
+    void archivedRequestAndItsAuditLogsAreStillExported() throws Exception {
+        Long id = staleClosedRequest();
+        awaitAuditLog(id);
+        
+        archivalService.archiveClosedRequests();
+        assertTrue(archiveRepository.existsById(id));
+        
+        List<JsonNode> requests = export(out -> exportService.exportRequests(ExportService.Format.NDJSON, out));
+        List<JsonNode> exported = requests.stream().filter(row -> row.get("id").asLong() == id).toList();
+        assertEquals(1, exported.size());
+        assertEquals(RequestExportRow.ARCHIVE, exported.get(0).get("origin").asText());
+        assertEquals("restart nightly job", exported.get(0).get("jobDetails").asText());
+        assertEquals("John Doe", exported.get(0).get("submitterName").asText());
+        assertTrue(requests.stream().anyMatch(row -> RequestExportRow.HOT.equals(row.get("origin").asText())));
+        
+        List<JsonNode> logs = export(out -> exportService.exportAuditLogs(ExportService.Format.NDJSON, out));
+        assertTrue(logs.stream().anyMatch(row -> row.get("requestId").asLong() == id
+                && RequestExportRow.ARCHIVE.equals(row.get("origin").asText())));
+    }
+    
+    private List<JsonNode> export(Export export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.to(out);
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+    
+    private interface Export {
+        void to(OutputStream out) throws Exception;
+    }
+    
+    // The audit writer is asynchronous, and a run that races it for a request rolls its batch back.
+    private void awaitAuditLog(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (jdbc.queryForObject("SELECT COUNT(*) FROM audit_logs WHERE request_id = ?", Long.class, id) == 0) {
+            assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the audit writer");
+            Thread.sleep(20);
+        }
+    }
+    
+    private Long staleClosedRequest() {
+        MaintenanceRequest created = fixtures.create(MaintenanceRequest.RequestType.JOB_CONTROL, "Archival");
+        jdbc.update(MAKE_STALE, created.getId());
+        return created.getId();
+    }
+}
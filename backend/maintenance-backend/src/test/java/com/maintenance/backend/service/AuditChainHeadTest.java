@@ -0,0 +1,111 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditChainVerification;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.model.AuditLog;
+import com.maintenance.backend.repository.AuditChainHeadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two nodes, each with its own segment directory, anchoring their chains in one database.
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditChainHeadTest {
+    
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    
+    @TempDir
+    Path directory;
+    
+    @Autowired
+    private AuditChainHeadRepository headRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final List<AuditChainStore> opened = new ArrayList<>();
+    
+    @AfterEach
+    void closeStores() throws IOException {
+        for (AuditChainStore store : opened) {
+            store.close();
+        }
+    }
+    
+    @Test
+    void eachNodeVerifiesAgainstItsOwnHead() throws Exception {
+        AuditChainStore first = open("node-a");
+        AuditChainStore second = open("node-b");
+        
+        store(first, 1, 5);
+        store(second, 1, 3);
+        
+        AuditChainVerification firstVerification = first.verify();
+        AuditChainVerification secondVerification = second.verify();
+        assertTrue(firstVerification.valid(), firstVerification.message());
+        assertEquals(5, firstVerification.lastSequence());
+        assertTrue(secondVerification.valid(), secondVerification.message());
+        assertEquals(3, secondVerification.lastSequence());
+        assertEquals(5L, headRepository.findById("node-a").orElseThrow().getLastSequence());
+        assertEquals(3L, headRepository.findById("node-b").orElseThrow().getLastSequence());
+    }
+    
+    @Test
+    void truncationIsStillDetectedAgainstTheNodesHead() throws Exception {
+        AuditChainStore store = open("node-c");
+        store(store, 1, 4);
+        
+        // The head moves past what the segment files hold, as if records had been cut off the end.
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                tx -> store.anchorHead(6, store.getLastHash()));
+        
+        assertFalse(store.verify().valid());
+    }
+    
+    private void store(AuditChainStore store, long from, long to) {
+        List<AuditEvent> events = new ArrayList<>();
+        for (long sequence = from; sequence <= to; sequence++) {
+            events.add(new AuditEvent(sequence, 7L, 3L, AuditLog.ActionType.REQUEST_UPDATED, "entry-" + sequence,
+                    "127.0.0.1", "MaintenanceApp/1.0", LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(sequence)));
+        }
+        store.append(events);
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                tx -> store.anchorHead(store.getLastSequence(), store.getLastHash()));
+    }
+    
+    private AuditChainStore open(String nodeId) throws IOException {
+        AuditChainStore store = new AuditChainStore();
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(store, "headRepository", headRepository);
+        ReflectionTestUtils.setField(store, "leaseService", new ExecutionLeaseService() {
+            @Override
+            public String getNodeId() {
+                return nodeId;
+            }
+        });
+        ReflectionTestUtils.setField(store, "segmentDir", directory.resolve(nodeId).toString());
+        ReflectionTestUtils.setField(store, "segmentSize", 2048);
+        ReflectionTestUtils.setField(store, "chainKey", KEY);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+}
@@ -0,0 +1,163 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditChainVerification;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.model.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the store directly against segment files in a temporary directory; segments are kept
+// small so a few dozen records roll over several times.
+class AuditChainStoreTest {
+    
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String OTHER_KEY = Base64.getEncoder().encodeToString("another-key-of-at-least-32-bytes".getBytes());
+    
+    @TempDir
+    Path directory;
+    
+    private final List<AuditChainStore> opened = new ArrayList<>();
+    
+    @AfterEach
+    void closeStores() throws IOException {
+        for (AuditChainStore store : opened) {
+            store.close();
+        }
+    }
+    
+    @Test
+    void chainSpanningSeveralSegmentsVerifiesAndSurvivesReopening() throws Exception {
+        AuditChainStore store = open(KEY);
+        store.append(events(1, 40));
+        byte[] head = store.getLastHash();
+        
+        assertTrue(segmentFiles().size() > 2);
+        AuditChainVerification verification = store.verify(40, head);
+        assertTrue(verification.valid(), verification.message());
+        assertEquals(40, verification.records());
+        
+        store.close();
+        opened.remove(store);
+        AuditChainStore reopened = open(KEY);
+        assertEquals(40, reopened.getLastSequence());
+        reopened.append(events(41, 45));
+        assertTrue(reopened.verify(40, head).valid());
+        assertEquals(45, reopened.verify(0, null).lastSequence());
+    }
+    
+    @Test
+    void editedRecordFailsVerification() throws Exception {
+        AuditChainStore store = open(KEY);
+        store.append(events(1, 20));
+        byte[] head = store.getLastHash();
+        store.close();
+        opened.remove(store);
+        
+        Path segment = segmentFiles().get(0);
+        String contents = Files.readString(segment, StandardCharsets.ISO_8859_1);
+        Files.writeString(segment, contents.replace("entry-2\"", "entry-X\""), StandardCharsets.ISO_8859_1);
+        
+        AuditChainVerification verification = open(KEY).verify(20, head);
+        assertFalse(verification.valid());
+        assertEquals(2, verification.failedSequence());
+    }
+    
+    // Whoever rewrites the records has to recompute every HMAC after them, which needs the key.
+    @Test
+    void chainRecomputedWithoutTheKeyFailsVerification() throws Exception {
+        AuditChainStore forger = open(OTHER_KEY);
+        forger.append(events(1, 10));
+        forger.close();
+        opened.remove(forger);
+        
+        AuditChainVerification verification = open(KEY).verify(0, null);
+        assertFalse(verification.valid());
+        assertEquals(1, verification.failedSequence());
+    }
+    
+    @Test
+    void truncatedChainFailsVerificationAgainstItsHead() throws Exception {
+        AuditChainStore store = open(KEY);
+        store.append(events(1, 40));
+        byte[] head = store.getLastHash();
+        store.close();
+        opened.remove(store);
+        
+        List<Path> files = segmentFiles();
+        Files.delete(files.get(files.size() - 1));
+        
+        AuditChainStore truncated = open(KEY);
+        assertTrue(truncated.verify(0, null).valid(), "the remaining records still link up");
+        AuditChainVerification verification = truncated.verify(40, head);
+        assertFalse(verification.valid());
+        assertEquals(truncated.getLastSequence() + 1, verification.failedSequence());
+    }
+    
+    @Test
+    void outOfOrderEntryIsRejected() throws Exception {
+        AuditChainStore store = open(KEY);
+        store.append(events(1, 3));
+        
+        assertThrows(IllegalStateException.class, () -> store.append(events(5, 5)));
+        assertEquals(3, store.getLastSequence());
+    }
+    
+    @Test
+    void replayedEntriesAreSkipped() throws Exception {
+        AuditChainStore store = open(KEY);
+        store.append(events(1, 3));
+        store.append(events(2, 6));
+        
+        AuditChainVerification verification = store.verify(6, store.getLastHash());
+        assertTrue(verification.valid(), verification.message());
+        assertEquals(6, verification.records());
+    }
+    
+    @Test
+    void persistentSegmentsRequireAKey() {
+        assertThrows(IllegalStateException.class, () -> open(""));
+    }
+    
+    private AuditChainStore open(String key) throws IOException {
+        AuditChainStore store = new AuditChainStore();
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(store, "segmentDir", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentSize", 2048);
+        ReflectionTestUtils.setField(store, "chainKey", key);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+    
+    private static List<AuditEvent> events(long from, long to) {
+        List<AuditEvent> events = new ArrayList<>();
+        for (long sequence = from; sequence <= to; sequence++) {
+            events.add(new AuditEvent(sequence, 7L, 3L, AuditLog.ActionType.REQUEST_UPDATED, "entry-" + sequence,
+                    "127.0.0.1", "MaintenanceApp/1.0", LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(sequence)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,214 @@
+package com.maintenance.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maintenance.backend.dto.AuditEvent;
+import com.maintenance.backend.model.AuditLog;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.repository.AuditLogRepository;
+import com.maintenance.backend.repository.MaintenanceRequestRepository;
+import com.maintenance.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditServiceTest {
+    
+    private static Path walDir;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private AuditChainStore chainStore;
+    
+    @Autowired
+    private MaintenanceRequestRepository requestRepository;
+    
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @DynamicPropertySource
+    static void walDirectory(DynamicPropertyRegistry registry) throws IOException {
+        walDir = Files.createTempDirectory("audit-wal-test");
+        registry.add("maintenance.audit.wal-dir", walDir::toString);
+    }
+    
+    @Test
+    void entryIsLoggedBeforeCommitAndCommitOrderDoesNotReorderTheChain() throws Exception {
+        MaintenanceRequest request = requestRepository.findAll().get(0);
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        List<TransactionSynchronization> firstTx = record(request, first);
+        List<TransactionSynchronization> secondTx = record(request, second);
+    
+        // Both entries are durable while their transactions are still committing.
+        String wal = Files.readString(walDir.resolve("audit.wal"));
+        assertTrue(wal.contains(first));
+        assertTrue(wal.contains(second));
+    
+        complete(secondTx, TransactionSynchronization.STATUS_COMMITTED);
+        complete(firstTx, TransactionSynchronization.STATUS_COMMITTED);
+    
+        AuditEvent firstEvent = awaitChained(request, first);
+        AuditEvent secondEvent = awaitChained(request, second);
+        assertEquals(firstEvent.sequence() + 1, secondEvent.sequence());
+        assertTrue(chainStore.verify().valid());
+    }
+    
+    @Test
+    void rolledBackTransactionKeepsItsSequenceButRecordsNoEntry() throws Exception {
+        MaintenanceRequest request = requestRepository.findAll().get(0);
+        String rolledBack = UUID.randomUUID().toString();
+        String committed = UUID.randomUUID().toString();
+        List<TransactionSynchronization> rolledBackTx = record(request, rolledBack);
+        List<TransactionSynchronization> committedTx = record(request, committed);
+    
+        complete(rolledBackTx, TransactionSynchronization.STATUS_ROLLED_BACK);
+        complete(committedTx, TransactionSynchronization.STATUS_COMMITTED);
+    
+        AuditEvent event = awaitChained(request, committed);
+        assertTrue(find(request, rolledBack).isEmpty());
+        // The rolled-back sequence is still in the chain, so the committed entry follows it directly.
+        assertEquals(chainStore.getLastSequence(), event.sequence());
+        assertTrue(chainStore.verify().valid());
+    }
+    
+    @Test
+    void writerKeepsDrainingWhileWritesFailAndRefusesEntriesPastTheBacklogBound() throws Exception {
+        MaintenanceRequest request = requestRepository.findAll().get(0);
+        FailingChainStore failingStore = new FailingChainStore();
+        AuditService service = new AuditService();
+        ReflectionTestUtils.setField(service, "auditLogRepository", auditLogRepository);
+        ReflectionTestUtils.setField(service, "chainStore", failingStore);
+        ReflectionTestUtils.setField(service, "requestRepository", requestRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "walDir", "");
+        ReflectionTestUtils.setField(service, "ringCapacity", 4);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 5L);
+        ReflectionTestUtils.setField(service, "maxBacklog", 16L);
+        service.start();
+        try {
+            String details = UUID.randomUUID().toString();
+            // Four times the ring's capacity: this only completes if the writer drains the ring while failing.
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 16; i++) {
+                    service.record(request, null, AuditLog.ActionType.REQUEST_UPDATED, details);
+                }
+            });
+            assertEquals(16, service.getBacklog());
+            assertThrows(IllegalStateException.class,
+                    () -> service.record(request, null, AuditLog.ActionType.REQUEST_UPDATED, details));
+    
+            failingStore.failing = false;
+            long deadline = System.currentTimeMillis() + 10000;
+            while (service.getBacklog() > 0) {
+                assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the audit writer");
+                Thread.sleep(20);
+            }
+            List<Long> sequences = failingStore.appended.stream().map(AuditEvent::sequence).toList();
+            assertEquals(16, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(i + 1, sequences.get(i));
+            }
+        } finally {
+            service.stop();
+        }
+    }
+    
+    // Runs record() and the before-commit phase of a transaction, without completing it yet.
+    private List<TransactionSynchronization> record(MaintenanceRequest request, String details) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditService.record(request, null, AuditLog.ActionType.REQUEST_UPDATED, details);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            return synchronizations;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+    
+    private AuditEvent awaitChained(MaintenanceRequest request, String details) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        List<AuditEvent> found;
+        while ((found = find(request, details)).isEmpty()) {
+            assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the audit writer");
+            Thread.sleep(20);
+        }
+        return found.get(0);
+    }
+    
+    private List<AuditEvent> find(MaintenanceRequest request, String details) {
+        return chainStore.find(request.getId(), null, null).stream()
+                .filter(event -> details.equals(event.details()))
+                .toList();
+    }
+    
+    // Fails every append while failing is set, standing in for an unavailable store.
+    private static class FailingChainStore extends AuditChainStore {
+        
+        private final List<AuditEvent> appended = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failing = true;
+        
+        @Override
+        public synchronized long getLastSequence() {
+            return appended.isEmpty() ? 0 : appended.get(appended.size() - 1).sequence();
+        }
+        
+        @Override
+        public synchronized byte[] getLastHash() {
+            return new byte[32];
+        }
+        
+        @Override
+        public synchronized void append(List<AuditEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("Audit store unavailable");
+            }
+            appended.addAll(events);
+        }
+        
+        @Override
+        public void anchorHead(long sequence, byte[] hash) {
+        }
+    }
+}
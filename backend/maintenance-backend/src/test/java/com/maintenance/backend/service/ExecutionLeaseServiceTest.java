@@ -0,0 +1,139 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two application contexts stand in for two cluster nodes sharing one file database. Leases run
+// for a minute; expiry is simulated by moving a claim's expiry into the past, since leases are
+// timed by the database clock.
+class ExecutionLeaseServiceTest {
+    
+    private static final String EXPIRE = "UPDATE execution_claims "
+            + "SET lease_expires_at = DATEADD(SECOND, -1, LOCALTIMESTAMP) WHERE request_id = ?";
+    
+    @TempDir
+    static Path dataDir;
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() {
+        String sharedDb = "jdbc:h2:file:" + dataDir.resolve("lease-test") + ";DB_CLOSE_ON_EXIT=FALSE";
+        nodeA = startNode("node-a", sharedDb);
+        nodeB = startNode("node-b", sharedDb);
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+    
+    @Test
+    void exactlyOneNodeAcquiresAContendedLease() throws Exception {
+        ExecutionLeaseService leaseA = nodeA.getBean(ExecutionLeaseService.class);
+        ExecutionLeaseService leaseB = nodeB.getBean(ExecutionLeaseService.class);
+        long requestId = 1001L;
+        
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Callable<Boolean>> attempts = List.of(
+                    () -> { start.await(); return leaseA.tryAcquire(requestId); },
+                    () -> { start.await(); return leaseB.tryAcquire(requestId); });
+            List<Future<Boolean>> results = attempts.stream().map(pool::submit).toList();
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get() ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            pool.shutdownNow();
+            leaseA.release(requestId);
+            leaseB.release(requestId);
+        }
+    }
+    
+    @Test
+    void expiredLeaseIsTakenOverByAnotherNode() {
+        ExecutionLeaseService leaseA = nodeA.getBean(ExecutionLeaseService.class);
+        ExecutionLeaseService leaseB = nodeB.getBean(ExecutionLeaseService.class);
+        
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        long requestId = 1002L;
+        
+        assertTrue(leaseB.tryAcquire(requestId));
+        assertFalse(leaseA.tryAcquire(requestId));
+        
+        // Node B's heartbeat moves the expiry forward again before anyone else claims the lease.
+        jdbc.update(EXPIRE, requestId);
+        leaseB.heartbeat();
+        assertFalse(leaseA.tryAcquire(requestId));
+        
+        // Without a heartbeat it stays expired and node A takes it over.
+        jdbc.update(EXPIRE, requestId);
+        assertTrue(leaseA.tryAcquire(requestId));
+        assertFalse(leaseB.tryAcquire(requestId));
+        leaseA.release(requestId);
+        leaseB.release(requestId);
+    }
+    
+    @Test
+    void leaseIsReleasedWhenTheTransactionRollsBack() {
+        ExecutionLeaseService leaseA = nodeA.getBean(ExecutionLeaseService.class);
+        ExecutionLeaseService leaseB = nodeB.getBean(ExecutionLeaseService.class);
+        TransactionTemplate transaction = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+        long requestId = 1003L;
+        
+        transaction.executeWithoutResult(status -> {
+            assertTrue(leaseA.tryAcquire(requestId));
+            assertFalse(leaseB.tryAcquire(requestId));
+            status.setRollbackOnly();
+        });
+        
+        // The lease runs for a minute, so only the rollback can have freed it.
+        assertTrue(leaseB.tryAcquire(requestId));
+        leaseB.release(requestId);
+    }
+    
+    @Test
+    void blankNodeIdFailsStartupWhenAStableOneIsRequired() {
+        ExecutionLeaseService lease = new ExecutionLeaseService();
+        ReflectionTestUtils.setField(lease, "configuredNodeId", "");
+        ReflectionTestUtils.setField(lease, "requireNodeId", true);
+        
+        assertThrows(IllegalStateException.class, lease::init);
+    }
+    
+    private static ConfigurableApplicationContext startNode(String nodeId, String sharedDb) {
+        return new SpringApplicationBuilder(MaintenanceBackendApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=" + sharedDb,
+                        "--maintenance.cluster.node-id=" + nodeId,
+                        "--maintenance.execution.lease-duration-ms=60000",
+                        "--maintenance.execution.heartbeat-interval-ms=3600000");
+    }
+}
@@ -0,0 +1,150 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.MaintenanceRequestSummary;
+import com.maintenance.backend.dto.PageCursor;
+import com.maintenance.backend.dto.RequestFilter;
+import com.maintenance.backend.model.MaintenanceRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Each test filters on an application name of its own, so rows from other tests never match.
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(RequestFixtures.class)
+class MaintenanceRequestFilterTest {
+    
+    // Mid-month of the month the rows are created in, so moving them around it keeps their
+    // request counter keys and the counters stay in step for the other tests in this context
+    private static final LocalDateTime TIED = YearMonth.now().atDay(15).atTime(12, 0);
+    
+    @Autowired
+    private MaintenanceRequestService requestService;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void pagesVisitEveryMatchOnceInSortColumnThenIdOrder() {
+        String label = label();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createAt(label, TIED).getId());
+        }
+        ids.add(createAt(label, TIED.minusDays(1)).getId());
+        ids.add(createAt(label, TIED.plusDays(1)).getId());
+        
+        List<Long> descending = List.of(ids.get(6), ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0),
+                ids.get(5));
+        assertEquals(descending, walk(filter(label), 2));
+        
+        RequestFilter ascending = filter(label);
+        ascending.setDirection("asc");
+        List<Long> expected = new ArrayList<>(descending);
+        Collections.reverse(expected);
+        assertEquals(expected, walk(ascending, 2));
+    }
+    
+    @Test
+    void criteriaAreCombinedAndCreatedRangeIsHalfOpen() {
+        String label = label();
+        MaintenanceRequest sqlFix = createAt(label, TIED, MaintenanceRequest.RequestType.SQL_FIX);
+        createAt(label, TIED, MaintenanceRequest.RequestType.CONFIG_UPDATE);
+        MaintenanceRequest earlierSqlFix = createAt(label, TIED.minusHours(1), MaintenanceRequest.RequestType.SQL_FIX);
+        createAt(label, TIED.plusHours(1), MaintenanceRequest.RequestType.SQL_FIX);
+        
+        RequestFilter filter = filter(label);
+        filter.setType(List.of(MaintenanceRequest.RequestType.SQL_FIX));
+        filter.setStatus(List.of(MaintenanceRequest.RequestStatus.DRAFT));
+        filter.setPeerReviewerId(fixtures.user(RequestFixtures.PEER_REVIEWER).getId());
+        filter.setCreatedFrom(TIED.minusHours(1));
+        filter.setCreatedTo(TIED.plusHours(1));
+        
+        assertEquals(List.of(sqlFix.getId(), earlierSqlFix.getId()), walk(filter, 10));
+    }
+    
+    @Test
+    void sortingByCompletedAtLeavesOutUncompletedRequests() {
+        String label = label();
+        MaintenanceRequest first = createAt(label, TIED);
+        MaintenanceRequest second = createAt(label, TIED);
+        createAt(label, TIED);
+        jdbc.update("UPDATE maintenance_requests SET completed_at = ? WHERE id IN (?, ?)",
+                TIED.plusDays(1), first.getId(), second.getId());
+        
+        RequestFilter filter = filter(label);
+        filter.setSort("completedAt");
+        
+        assertEquals(List.of(second.getId(), first.getId()), walk(filter, 1));
+    }
+    
+    @Test
+    void unsupportedSortAndMalformedCursorAreRejected() {
+        RequestFilter filter = filter(label());
+        filter.setSort("title");
+        assertThrows(IllegalArgumentException.class, () -> requestService.getFilteredRequests(filter, null, 10));
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> requestService.getFilteredRequests(filter(label()), "not-a-cursor", 10));
+    }
+    
+    @Test
+    void cursorPositionsAreExclusive() {
+        String label = label();
+        MaintenanceRequest older = createAt(label, TIED);
+        MaintenanceRequest newer = createAt(label, TIED);
+        
+        String atNewer = new PageCursor(TIED, newer.getId()).encode();
+        CursorPage<MaintenanceRequestSummary> page = requestService.getFilteredRequests(filter(label), atNewer, 10);
+        
+        assertEquals(List.of(older.getId()), page.getItems().stream().map(MaintenanceRequestSummary::id).toList());
+    }
+    
+    private List<Long> walk(RequestFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MaintenanceRequestSummary> page = requestService.getFilteredRequests(filter, cursor, limit);
+            page.getItems().forEach(summary -> ids.add(summary.id()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private MaintenanceRequest createAt(String label, LocalDateTime createdAt) {
+        return createAt(label, createdAt, MaintenanceRequest.RequestType.CONFIG_UPDATE);
+    }
+    
+    private MaintenanceRequest createAt(String label, LocalDateTime createdAt, MaintenanceRequest.RequestType type) {
+        MaintenanceRequest request = fixtures.create(type, label);
+        jdbc.update("UPDATE maintenance_requests SET created_at = ? WHERE id = ?", createdAt, request.getId());
+        return request;
+    }
+    
+    private static RequestFilter filter(String label) {
+        RequestFilter filter = new RequestFilter();
+        filter.setApplication(label + " Test");
+        return filter;
+    }
+    
+    private static String label() {
+        return "Filter " + UUID.randomUUID();
+    }
+}
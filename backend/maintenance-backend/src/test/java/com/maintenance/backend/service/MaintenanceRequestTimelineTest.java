@@ -0,0 +1,153 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.CursorPage;
+import com.maintenance.backend.dto.TimelineEntry;
+import com.maintenance.backend.model.ApprovalWorkflow;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.User;
+import com.maintenance.backend.repository.ArchivedMaintenanceRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Each request is created, submitted, approved by the manager and executed, which leaves one
+// approval and several audit entries on its timeline.
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(RequestFixtures.class)
+class MaintenanceRequestTimelineTest {
+    
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 1, 12, 0);
+    
+    @Autowired
+    private MaintenanceRequestService requestService;
+    
+    @Autowired
+    private ApprovalWorkflowService approvalService;
+    
+    @Autowired
+    private ArchivalService archivalService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private ArchivedMaintenanceRequestRepository archiveRepository;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Test
+    void entriesWithTheSameTimestampListApprovalsFirstThenByIdDescending() throws InterruptedException {
+        Long id = executedRequest();
+        jdbc.update("UPDATE audit_logs SET created_at = ? WHERE request_id = ?", AT, id);
+        jdbc.update("UPDATE approval_workflows SET created_at = ?, approved_at = ? WHERE request_id = ?", AT, AT, id);
+        
+        List<String> expected = new ArrayList<>();
+        ids("approval_workflows", id).forEach(approval -> expected.add("APPROVAL " + approval));
+        ids("audit_logs", id).forEach(audit -> expected.add("AUDIT " + audit));
+        assertTrue(expected.size() > 2, "timeline: " + expected);
+        
+        for (int limit = 1; limit <= 3; limit++) {
+            assertEquals(expected, walk(id, limit), "limit " + limit);
+        }
+    }
+    
+    @Test
+    void approvalsAndAuditEntriesInterleaveByTime() throws InterruptedException {
+        Long id = executedRequest();
+        List<Long> audits = ids("audit_logs", id);
+        Long oldest = audits.get(audits.size() - 1);
+        jdbc.update("UPDATE audit_logs SET created_at = ? WHERE request_id = ?", AT.plusHours(1), id);
+        jdbc.update("UPDATE audit_logs SET created_at = ? WHERE id = ?", AT.minusHours(1), oldest);
+        jdbc.update("UPDATE approval_workflows SET created_at = ?, approved_at = ? WHERE request_id = ?", AT, AT, id);
+        
+        List<String> expected = new ArrayList<>();
+        audits.subList(0, audits.size() - 1).forEach(audit -> expected.add("AUDIT " + audit));
+        ids("approval_workflows", id).forEach(approval -> expected.add("APPROVAL " + approval));
+        expected.add("AUDIT " + oldest);
+        
+        assertEquals(expected, walk(id, 1));
+    }
+    
+    @Test
+    void archivedRequestKeepsItsTimeline() throws InterruptedException {
+        Long id = executedRequest();
+        List<String> hot = walk(id, 2);
+        
+        jdbc.update("UPDATE maintenance_requests SET updated_at = DATEADD('DAY', -365, LOCALTIMESTAMP) WHERE id = ?",
+                id);
+        archivalService.archiveClosedRequests();
+        assertTrue(archiveRepository.existsById(id));
+        
+        assertEquals(hot, walk(id, 2));
+    }
+    
+    @Test
+    void unknownRequestHasNoTimelineAndMalformedCursorIsRejected() throws InterruptedException {
+        assertFalse(requestService.getAuditTimeline(Long.MAX_VALUE, null, 10).isPresent());
+        
+        Long id = executedRequest();
+        assertThrows(IllegalArgumentException.class, () -> requestService.getAuditTimeline(id, "not-a-cursor", 10));
+    }
+    
+    private List<String> walk(Long id, int limit) {
+        List<String> entries = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TimelineEntry> page = requestService.getAuditTimeline(id, cursor, limit).orElseThrow();
+            page.getItems().forEach(entry -> entries.add(entry.kind() + " " + entry.id()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return entries;
+    }
+    
+    private List<Long> ids(String table, Long requestId) {
+        return jdbc.queryForList("SELECT id FROM " + table + " WHERE request_id = ? ORDER BY id DESC",
+                Long.class, requestId);
+    }
+    
+    private Long executedRequest() throws InterruptedException {
+        User submitter = fixtures.user(RequestFixtures.SUBMITTER);
+        User manager = fixtures.user("manager@maintenance.com");
+        Long id = new TransactionTemplate(transactionManager).execute(status -> {
+            MaintenanceRequest created = fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Timeline");
+            MaintenanceRequest submitted = requestService.submitRequest(created.getId(), submitter);
+            ApprovalWorkflow approval = approvalService.createManagerApproval(submitted, manager);
+            approvalService.processApproval(approval.getId(), ApprovalWorkflow.ApprovalStatus.APPROVED, "ok", manager);
+            return created.getId();
+        });
+        requestService.executeRequest(id, manager);
+        awaitAuditWriter();
+        return id;
+    }
+    
+    // The audit writer stores entries asynchronously.
+    private void awaitAuditWriter() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (auditService.getBacklog() > 0) {
+            assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the audit writer");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.model.OutboxEvent;
+import com.maintenance.backend.model.OutboxOffsetKey;
+import com.maintenance.backend.repository.OutboxOffsetRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs with a replica that is migrated but never replicated to, so every event the recorder
+// receives also shows that the dispatcher read it from the primary.
+class OutboxDispatcherTest {
+    
+    private static final String INSERT_EVENT = "INSERT INTO workflow_outbox (event_type, request_id, created_at) "
+            + "VALUES ('REQUEST_UPDATED', 990001, LOCALTIMESTAMP)";
+    
+    private static ConfigurableApplicationContext context;
+    private static DataSource primary;
+    private static JdbcTemplate jdbc;
+    private static Recorder recorder;
+    private static OutboxOffsetRepository offsetRepository;
+    private static String nodeId;
+    
+    @BeforeAll
+    static void start() {
+        String replicaUrl = "jdbc:h2:mem:outbox-replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(replicaUrl, "sa", "password").load().migrate();
+        context = new SpringApplicationBuilder(MaintenanceBackendApplication.class, RecorderConfig.class)
+                .profiles("test")
+                .run("--maintenance.datasource.replica.url=" + replicaUrl,
+                        "--maintenance.outbox.poll-interval-ms=50",
+                        "--maintenance.outbox.gap-timeout-ms=200");
+        primary = context.getBean("primaryDataSource", DataSource.class);
+        jdbc = new JdbcTemplate(primary);
+        recorder = context.getBean(Recorder.class);
+        offsetRepository = context.getBean(OutboxOffsetRepository.class);
+        nodeId = context.getBean(ExecutionLeaseService.class).getNodeId();
+    }
+    
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+    
+    @Test
+    void gapFromAnotherNodesOpenTransactionIsDeliveredOnceItCommits() throws Exception {
+        try (Connection otherNode = primary.getConnection()) {
+            otherNode.setAutoCommit(false);
+            long gapId = insertEvent(otherNode);
+            long laterId = insertEvent(null);
+            
+            await(() -> recorder.ids.contains(laterId));
+            assertFalse(recorder.ids.contains(gapId));
+            assertTrue(storedOffset(nodeId) < gapId, "the stored offset stops short of the open gap");
+            assertEquals(1, context.getBean(OutboxDispatcher.class).getStatus().openGaps());
+            
+            otherNode.commit();
+            await(() -> recorder.ids.contains(gapId));
+            await(() -> storedOffset(nodeId) >= laterId);
+            assertEquals(0, context.getBean(OutboxDispatcher.class).getStatus().openGaps());
+        }
+    }
+    
+    @Test
+    void offsetsAreKeptPerNode() throws Exception {
+        jdbc.update("INSERT INTO outbox_offsets (node_id, subscriber, last_event_id) VALUES ('other-node', ?, 0)",
+                Recorder.NAME);
+        long id = insertEvent(null);
+        
+        await(() -> storedOffset(nodeId) >= id);
+        assertEquals(0L, storedOffset("other-node"));
+        jdbc.update("DELETE FROM outbox_offsets WHERE node_id = 'other-node'");
+    }
+    
+    @Test
+    void subscriberWithoutAStoredOffsetIsResyncedOnStart() {
+        assertEquals(1, recorder.resyncs.get());
+    }
+    
+    @Test
+    void pruneDropsDeliveredEventsAndOffsetsOfDepartedNodes() throws Exception {
+        long oldId = insertEvent(null);
+        jdbc.update("UPDATE workflow_outbox SET created_at = DATEADD('DAY', -30, LOCALTIMESTAMP) WHERE id = ?", oldId);
+        long recentId = insertEvent(null);
+        // Every subscriber on this node has to have stored its offset past the old event.
+        await(() -> jdbc.queryForObject("SELECT MIN(last_event_id) FROM outbox_offsets WHERE node_id = ?",
+                Long.class, nodeId) >= recentId);
+        jdbc.update("INSERT INTO outbox_offsets (node_id, subscriber, last_event_id, updated_at) "
+                + "VALUES ('departed-node', ?, 0, DATEADD('DAY', -60, LOCALTIMESTAMP))", Recorder.NAME);
+        
+        context.getBean(OutboxDispatcher.class).prune();
+        
+        assertEquals(0, count("SELECT COUNT(*) FROM workflow_outbox WHERE id = " + oldId));
+        assertEquals(1, count("SELECT COUNT(*) FROM workflow_outbox WHERE id = " + recentId));
+        assertEquals(0, count("SELECT COUNT(*) FROM outbox_offsets WHERE node_id = 'departed-node'"));
+        assertTrue(storedOffset(nodeId) >= recentId);
+    }
+    
+    private static int count(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+    
+    private static long insertEvent(Connection connection) throws Exception {
+        if (connection == null) {
+            try (Connection autoCommit = primary.getConnection()) {
+                return insertEvent(autoCommit);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS)) {
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+    
+    private static long storedOffset(String node) {
+        return offsetRepository.findById(new OutboxOffsetKey(node, Recorder.NAME)).orElseThrow().getLastEventId();
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the outbox dispatcher");
+            Thread.sleep(20);
+        }
+    }
+    
+    static class RecorderConfig {
+        
+        @Bean
+        Recorder recorder() {
+            return new Recorder();
+        }
+    }
+    
+    static class Recorder implements OutboxSubscriber {
+        
+        static final String NAME = "test-recorder";
+        
+        final List<Long> ids = new CopyOnWriteArrayList<>();
+        final AtomicInteger resyncs = new AtomicInteger();
+        
+        @Override
+        public String getSubscriberName() {
+            return NAME;
+        }
+        
+        @Override
+        public void onEvents(List<OutboxEvent> events) {
+            for (OutboxEvent event : events) {
+                ids.add(event.getId());
+            }
+        }
+        
+        @Override
+        public void resync() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.model.MaintenanceRequest;
+import com.maintenance.backend.model.RequestCounter;
+import com.maintenance.backend.model.RequestCounterKey;
+import com.maintenance.backend.repository.RequestCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(RequestFixtures.class)
+class RequestCounterServiceTest {
+    
+    private static final String SHIFT_COUNT = "UPDATE request_counters SET request_count = request_count + ? "
+            + "WHERE status = ? AND type = ? AND environment = ? AND bucket_month = ?";
+    
+    @Autowired
+    private RequestCounterService counterService;
+    
+    @Autowired
+    private RequestCounterRepository counterRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbc;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private RequestFixtures fixtures;
+    
+    @Test
+    void driftIsRepairedOnlyOnceTwoRunsAgree() {
+        RequestCounter counter = counterRepository.findAll().stream()
+                .filter(c -> c.getRequestCount() > 0)
+                .findFirst().orElseThrow();
+        RequestCounterKey key = counter.getKey();
+        long correct = counter.getRequestCount();
+        
+        // Drift seen once, e.g. a batch archived between the two counts, is left alone.
+        shift(key, 5);
+        counterService.reconcile();
+        assertEquals(correct + 5, storedCount(key));
+        
+        // The same drift seen again is real and gets repaired.
+        counterService.reconcile();
+        assertEquals(correct, storedCount(key));
+        
+        // Drift that changes between runs is only a suspect again.
+        shift(key, 2);
+        counterService.reconcile();
+        shift(key, 1);
+        counterService.reconcile();
+        assertEquals(correct + 3, storedCount(key));
+        counterService.reconcile();
+        assertEquals(correct, storedCount(key));
+        assertEquals(totalInDatabase(), counterService.getTotalRequests());
+    }
+    
+    // The reconciliation's reload starts after the change has committed but before it is mirrored;
+    // it must not load the change and then see it mirrored a second time.
+    @Test
+    void reconcileDuringACommitDoesNotMirrorTheChangeTwice() throws Exception {
+        AtomicBoolean reconcileWaited = new AtomicBoolean();
+        Thread reconcile = new Thread(counterService::reconcile);
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reconcile.start();
+                    try {
+                        reconcile.join(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    reconcileWaited.set(reconcile.isAlive());
+                }
+            });
+            fixtures.create(MaintenanceRequest.RequestType.CONFIG_UPDATE, "Counter");
+        });
+        reconcile.join(10000);
+        
+        assertTrue(reconcileWaited.get(), "the reload waits for the committing transaction");
+        assertEquals(countInDatabase(MaintenanceRequest.RequestStatus.DRAFT),
+                counterService.getCountByStatus(MaintenanceRequest.RequestStatus.DRAFT));
+        assertEquals(totalInDatabase(), counterService.getTotalRequests());
+    }
+    
+    // Reloads read the table while requests keep committing; each change must end up mirrored once.
+    @Test
+    void mirrorMatchesTheTableAfterReconcilingWhileRequestsCommit() throws Exception {
+        AtomicBoolean creating = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reconciler = new Thread(() -> {
+            try {
+                while (creating.get()) {
+                    counterService.reconcile();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reconciler.start();
+        try {
+            for (int i = 0; i < 40; i++) {
+                fixtures.create(MaintenanceRequest.RequestType.JOB_CONTROL, "Counter");
+            }
+        } finally {
+            creating.set(false);
+            reconciler.join(10000);
+        }
+        
+        assertNull(failure.get());
+        assertEquals(countInDatabase(MaintenanceRequest.RequestStatus.DRAFT),
+                counterService.getCountByStatus(MaintenanceRequest.RequestStatus.DRAFT));
+        assertEquals(totalInDatabase(), counterService.getTotalRequests());
+    }
+    
+    private void shift(RequestCounterKey key, long delta) {
+        jdbc.update(SHIFT_COUNT, delta, key.getStatus().name(), key.getType().name(), key.getEnvironment(),
+                key.getMonth());
+    }
+    
+    private long storedCount(RequestCounterKey key) {
+        return counterRepository.findById(key).map(RequestCounter::getRequestCount).orElse(0L);
+    }
+    
+    private long countInDatabase(MaintenanceRequest.RequestStatus status) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(request_count), 0) FROM request_counters WHERE status = ?",
+                Long.class, status.name());
+    }
+    
+    private long totalInDatabase() {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(request_count), 0) FROM request_counters", Long.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.MaintenanceBackendApplication;
+import com.maintenance.backend.RequestFixtures;
+import com.maintenance.backend.dto.SearchHit;
+import com.maintenance.backend.model.MaintenanceRequest;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against a file database and an on-disk index, so a second context started on the same
+// directory stands in for the node coming back after a crash.
+class SearchIndexServiceTest {
+    
+    @TempDir
+    Path dataDir;
+    
+    @Test
+    void workflowEventsAreIndexedAndCommittedBeforeTheyAreAcknowledged() throws Exception {
+        try (ConfigurableApplicationContext context = startNode()) {
+            SearchIndexService searchIndex = context.getBean(SearchIndexService.class);
+            MaintenanceRequest request = context.getBean(RequestFixtures.class).newRequest(
+                    MaintenanceRequest.RequestType.SQL_FIX, "Xylophone ledger");
+            request.setSqlStatement("UPDATE billing.zanzibar_invoices SET status = 'VOID' WHERE id = 7");
+            Long id = context.getBean(RequestFixtures.class).create(request).getId();
+            
+            awaitAcknowledged(context);
+            
+            // Read from the last commit on disk, which is all a crash would leave behind.
+            try (DirectoryReader reader = DirectoryReader.open(FSDirectory.open(dataDir.resolve("index")))) {
+                assertEquals(1, reader.docFreq(new Term("id", id.toString())));
+            }
+            assertEquals(List.of(id), ids(searchIndex.search("xylophone", null, null, null, null).getItems()));
+            assertEquals(List.of(id), ids(searchIndex.search("zanzibar_invoices", null, null, null, null).getItems()),
+                    "the table a statement touches is indexed by its unqualified name");
+            LocalDate today = LocalDate.now();
+            assertEquals(List.of(id), ids(searchIndex.search("xylophone", today, today, null, null).getItems()));
+            assertTrue(searchIndex.search("xylophone", today.minusDays(7), today.minusDays(1), null, null).getItems().isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> searchIndex.search(" ", null, null, null, null));
+        }
+    }
+    
+    // The node comes back without its outbox offsets, as after they were dropped for being stale,
+    // and a title changed while it was down never went through the outbox.
+    @Test
+    void nodeWithoutAStoredOffsetRebuildsItsIndexOnRestart() throws Exception {
+        Long id;
+        try (ConfigurableApplicationContext context = startNode()) {
+            id = context.getBean(RequestFixtures.class).create(MaintenanceRequest.RequestType.CONFIG_UPDATE,
+                    "Marmalade settings").getId();
+            awaitAcknowledged(context);
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            jdbc.update("UPDATE maintenance_requests SET title = 'Quarantine sweep' WHERE id = ?", id);
+            jdbc.update("DELETE FROM outbox_offsets");
+        }
+        
+        try (ConfigurableApplicationContext context = startNode()) {
+            SearchIndexService searchIndex = context.getBean(SearchIndexService.class);
+            await(() -> !searchIndex.getStatus().rebuilding()
+                    && !searchIndex.search("quarantine sweep", null, null, null, null).getItems().isEmpty());
+            List<SearchHit> hits = searchIndex.search("quarantine sweep", null, null, null, null).getItems();
+            assertEquals(List.of(id), ids(hits));
+            assertEquals("Quarantine sweep", hits.get(0).title());
+        }
+    }
+    
+    private ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(MaintenanceBackendApplication.class, RequestFixtures.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--maintenance.search.index-dir=" + dataDir.resolve("index"),
+                        "--maintenance.cluster.node-id=search-node",
+                        "--maintenance.outbox.poll-interval-ms=50");
+    }
+    
+    // The stored offset only passes events the index has committed.
+    private static void awaitAcknowledged(ConfigurableApplicationContext context) throws InterruptedException {
+        OutboxDispatcher dispatcher = context.getBean(OutboxDispatcher.class);
+        long lastEventId = dispatcher.getStatus().lastEventId();
+        await(() -> dispatcher.getStatus().offsets().get("search-index") >= lastEventId);
+    }
+    
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for the search index");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.maintenance.backend.service;
+
+import com.maintenance.backend.dto.PushStatus;
+import com.maintenance.backend.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Clients are raw sockets with a small receive buffer that stop reading after the response
+// headers, so the server's writes to them block and their frame queues fill up. Events go
+// straight to the push service for request ids no real request has. The controller tests stand
+// in for a signed-in user with @WithMockUser, which only reaches MockMvc, so the stream endpoint
+// is opened up for these real connections instead.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "maintenance.push.queue-capacity=8",
+        "maintenance.push.heartbeat-interval-ms=3600000"})
+@ActiveProfiles("test")
+class WorkflowPushServiceTest {
+    
+    private static final long TIMEOUT_MS = 30000;
+    
+    private static final AtomicLong eventIds = new AtomicLong(1_000_000_000L);
+    private static final AtomicLong requestIds = new AtomicLong(2_000_000_000L);
+    
+    @Autowired
+    private WorkflowPushService pushService;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Test
+    void clientThatFallsBehindGetsOneResyncInsteadOfTheDroppedEvents() throws Exception {
+        long requestId = requestIds.incrementAndGet();
+        PushStatus before = pushService.getStatus();
+        try (Socket socket = openStream(requestId)) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (pushService.getStatus().resyncs() == before.resyncs()) {
+                assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for a resync");
+                push(requestId);
+            }
+            
+            // Nothing was pushed after the overflow, so its queue holds just the resync frame.
+            readUntil(in, "event: resync");
+            long next = push(requestId);
+            String afterResync = readUntil(in, "id: " + next + "\n");
+            assertEquals(1, afterResync.split("id: ", -1).length - 1, afterResync);
+            
+            PushStatus after = pushService.getStatus();
+            assertEquals(before.resyncs() + 1, after.resyncs());
+            assertEquals(before.disconnects(), after.disconnects());
+            assertTrue(after.framesDropped() > before.framesDropped());
+        }
+    }
+    
+    @Test
+    void clientThatOverflowsAgainBeforeReadingTheResyncIsDisconnected() throws Exception {
+        long requestId = requestIds.incrementAndGet();
+        PushStatus before = pushService.getStatus();
+        try (Socket socket = openStream(requestId)) {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (pushService.getStatus().disconnects() == before.disconnects()) {
+                assertFalse(System.currentTimeMillis() > deadline, "Timed out waiting for a disconnect");
+                push(requestId);
+            }
+            
+            // Earlier resyncs may have made it into the socket buffers before the writes stalled.
+            PushStatus after = pushService.getStatus();
+            assertTrue(after.resyncs() > before.resyncs());
+            assertEquals(before.clients(), after.clients());
+            
+            // Events for the disconnected client are no longer queued anywhere.
+            long dropped = after.framesDropped();
+            push(requestId);
+            assertEquals(dropped, pushService.getStatus().framesDropped());
+        }
+    }
+    
+    private long push(long requestId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(eventIds.incrementAndGet());
+        event.setEventType(OutboxEvent.EventType.REQUEST_UPDATED);
+        event.setRequestId(requestId);
+        event.setCreatedAt(LocalDateTime.now());
+        pushService.onEvents(List.of(event));
+        return event.getId();
+    }
+    
+    @TestConfiguration
+    static class OpenStreamConfig {
+        
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        SecurityFilterChain openStream(HttpSecurity http) throws Exception {
+            return http.securityMatcher("/stream/**")
+                    .authorizeHttpRequests(authz -> authz.anyRequest().permitAll())
+                    .build();
+        }
+    }
+    
+    // The client is registered by the time the response headers arrive.
+    private Socket openStream(long requestId) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        socket.setSoTimeout((int) TIMEOUT_MS);
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/stream?inbox=false&requests=" + requestId + "&token=mock-jwt-token-3 HTTP/1.1\r\n"
+                + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        String headers = readUntil(socket.getInputStream(), "\r\n\r\n");
+        assertTrue(headers.startsWith("HTTP/1.1 200"), headers);
+        return socket;
+    }
+    
+    // Everything read up to and including the marker.
+    private static String readUntil(InputStream in, String marker) throws IOException {
+        StringBuilder read = new StringBuilder();
+        try {
+            int b;
+            while ((b = in.read()) != -1) {
+                read.append((char) b);
+                if (read.length() >= marker.length()
+                        && read.substring(read.length() - marker.length()).equals(marker)) {
+                    return read.toString();
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // Reported below with what was read.
+        }
+        throw new AssertionError("Stream ended before " + marker.trim() + ":\n" + read);
+    }
+}
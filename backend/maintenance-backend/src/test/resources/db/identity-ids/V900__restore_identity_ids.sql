@@ -0,0 +1,7 @@
+-- Undoes V4 for InsertBatchingBenchmarkTest: the write-heavy tables take IDENTITY ids again.
+-- The restart value clears the seeded rows.
+
+ALTER TABLE maintenance_request_payloads ALTER COLUMN id SET GENERATED BY DEFAULT RESTART WITH 100000;
+ALTER TABLE maintenance_requests ALTER COLUMN id SET GENERATED BY DEFAULT RESTART WITH 100000;
+ALTER TABLE approval_workflows ALTER COLUMN id SET GENERATED BY DEFAULT RESTART WITH 100000;
+ALTER TABLE audit_logs ALTER COLUMN id SET GENERATED BY DEFAULT RESTART WITH 100000;